@@ -0,0 +1,76 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.service.ApiConsumer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * HTTP round trips of the shared client against a local stub serving the recorded page,
+ * so the numbers reflect the client and not the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiConsumerBenchmark {
+    private static final int PAGES = 16;
+
+    private HttpServer server;
+    private ApiConsumer consumer;
+    private String url;
+    private List<String> urls;
+
+    @Setup
+    public void setUp() {
+        byte[] page = Fixtures.booksPage();
+        server = Fixtures.stubServer(() -> page);
+        consumer = new ApiConsumer(Duration.ofSeconds(5), Duration.ofSeconds(30), 8, new SimpleMeterRegistry());
+        url = Fixtures.baseUrl(server) + "?page=1";
+        urls = IntStream.rangeClosed(1, PAGES).mapToObj(i -> Fixtures.baseUrl(server) + "?page=" + i).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        consumer.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public String fetchData() {
+        return consumer.fetchData(url);
+    }
+
+    @Benchmark
+    public long fetchStream() throws IOException {
+        try (InputStream in = consumer.fetchStream(url)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /** Sixteen pages fetched concurrently, bounded by the client's max concurrency. */
+    @Benchmark
+    public List<String> fetchAll() {
+        return consumer.fetchAll(urls);
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.dto.AuthorLifespanDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.service.CatalogAnalytics;
+import io.github.andreteixeir.literalura.service.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Group-by analytics over a synthetic catalog of {@code rows} books loaded straight into the
+ * snapshot (no database), with 1, 2, 4 and 8 fork/join threads. The speedup is the ratio between
+ * the {@code threads=1} score and the others; it is bounded by the cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogAnalyticsBenchmark {
+    private static final String[] LANGUAGES = {"en", "en", "en", "pt", "fr", "de", "es", "fi", "it", "nl"};
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private CatalogAnalytics analytics;
+
+    @Setup
+    public void setUp() {
+        int authors = Math.max(1, rows / 4);
+        CatalogSnapshot snapshot = new CatalogSnapshot(null, null, null, 120, true);
+        SplittableRandom random = new SplittableRandom(42);
+        snapshot.load(
+                LongStream.rangeClosed(1, authors).mapToObj(id -> new AuthorLifespanDTO(id,
+                        id % 20 == 0 ? null : 1400 + (int) (id % 600), null)),
+                LongStream.rangeClosed(1, rows).mapToObj(id -> new RankedBookDTO(id, "Book " + id,
+                        1 + random.nextLong(authors), "Author", LANGUAGES[random.nextInt(LANGUAGES.length)],
+                        // Heavy-tailed like real download counts; 1 in 20 unknown.
+                        id % 20 == 0 ? null : Math.floor(Math.exp(random.nextDouble() * 12)))));
+        analytics = new CatalogAnalytics(snapshot, threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        analytics.close();
+    }
+
+    @Benchmark
+    public CatalogAnalytics.Summary overall() {
+        return analytics.overall();
+    }
+
+    @Benchmark
+    public Map<String, CatalogAnalytics.Summary> byLanguage() {
+        return analytics.byLanguage();
+    }
+
+    @Benchmark
+    public Map<Integer, CatalogAnalytics.Summary> byBirthCentury() {
+        return analytics.byBirthCentury();
+    }
+
+    @Benchmark
+    public Map<Long, CatalogAnalytics.Summary> byAuthor() {
+        return analytics.byAuthor();
+    }
+}
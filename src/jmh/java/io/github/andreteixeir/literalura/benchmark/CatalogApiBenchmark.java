@@ -0,0 +1,85 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read endpoints of the REST API served to 64 concurrent clients (the request handlers run on
+ * virtual threads), each cycling through the listing, ranking, author and statistics paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class CatalogApiBenchmark {
+    private static final String[] PATHS = {
+            "/api/books?page=3&size=50", "/api/books?language=pt", "/api/books/top?n=25", "/api/authors?page=1",
+            "/api/authors/alive?year=1850", "/api/authors/search?name=autor%207", "/api/statistics"
+    };
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @State(Scope.Thread)
+    public static class Client {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        context = Fixtures.startApplication("--spring.main.web-application-type=servlet", "--server.port=0");
+        Fixtures.seedCatalog(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(DownloadLeaderboard.class).rebuild();
+        context.getBean(AuthorLifespanIndex.class).rebuild();
+        context.getBean(CatalogStatistics.class).rebuild();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int get(Client state) throws IOException, InterruptedException {
+        String path = PATHS[state.next++ % PATHS.length];
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException(path + " answered " + status);
+        }
+        return status;
+    }
+}
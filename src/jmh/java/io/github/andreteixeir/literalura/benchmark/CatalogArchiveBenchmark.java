@@ -0,0 +1,116 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.service.CatalogArchiveService;
+import io.github.andreteixeir.literalura.service.CatalogIngestionService;
+import io.github.andreteixeir.literalura.service.GutendexIdFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeding an empty database with the same {@code pages} pages of books (32 per page) in three
+ * ways: crawling them from a local Gutendex stub, and importing an archive exported from them,
+ * plain and compressed. Each measurement starts from empty tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CatalogArchiveBenchmark {
+    @Param({"50"})
+    public int pages;
+
+    private final AtomicInteger served = new AtomicInteger();
+    private HttpServer server;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private CatalogIngestionService ingestionService;
+    private CatalogArchiveService archiveService;
+    private GutendexIdFilter idFilter;
+    private Path plainArchive;
+    private Path compressedArchive;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = Fixtures.stubServer(this::nextPage);
+        // No pacing: the crawl is measured against the stub, not against the production rate limit.
+        context = Fixtures.startApplication("--literalura.gutendex.base-url=" + Fixtures.baseUrl(server),
+                "--literalura.fetch.rate=1000000", "--literalura.fetch.burst=1000000");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ingestionService = context.getBean(CatalogIngestionService.class);
+        archiveService = context.getBean(CatalogArchiveService.class);
+        idFilter = context.getBean(GutendexIdFilter.class);
+
+        ingestionService.ingestCatalog();
+        plainArchive = Files.createTempFile("catalog", ".ltra");
+        compressedArchive = Files.createTempFile("catalog", ".ltra");
+        System.out.printf("%nPlain archive: %s%nCompressed archive: %s%n",
+                archiveService.export(plainArchive, false), archiveService.export(compressedArchive, true));
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        jdbcTemplate.update("DELETE FROM book_authors");
+        jdbcTemplate.update("DELETE FROM book_languages");
+        jdbcTemplate.update("DELETE FROM books");
+        jdbcTemplate.update("DELETE FROM authors");
+        jdbcTemplate.update("DELETE FROM ingestion_checkpoints");
+        idFilter.rebuild();
+        served.set(0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        server.stop(0);
+        Files.deleteIfExists(plainArchive);
+        Files.deleteIfExists(compressedArchive);
+    }
+
+    @Benchmark
+    public long recrawl() {
+        return ingestionService.ingestCatalog().booksSaved();
+    }
+
+    @Benchmark
+    public long importPlainArchive() {
+        return archiveService.importArchive(plainArchive).booksInserted();
+    }
+
+    @Benchmark
+    public long importCompressedArchive() {
+        return archiveService.importArchive(compressedArchive).booksInserted();
+    }
+
+    // The recorded page with titles and ids unique to its position, linking to the next one until the last.
+    private byte[] nextPage() {
+        int page = served.incrementAndGet();
+        String next = page < pages ? "\"" + Fixtures.baseUrl(server) + "?page=" + (page + 1) + "\"" : "null";
+        return Fixtures.renumber(new String(Fixtures.booksPage(), StandardCharsets.UTF_8), page)
+                .replace("\"title\": \"", "\"title\": \"Page " + page + " ")
+                .replaceFirst("\"next\": (\"[^\"]*\"|null)", "\"next\": " + next)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
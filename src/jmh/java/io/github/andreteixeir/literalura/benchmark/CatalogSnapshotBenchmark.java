@@ -0,0 +1,137 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.service.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The analytics queries answered from the columnar {@link CatalogSnapshot} next to the same
+ * answers computed from JPA entities, on a catalog of {@code rows} books. The setup prints the
+ * heap retained by each representation; run with {@code -prof gc} to compare the allocation of
+ * {@code refreshSnapshot} and {@code loadEntities} as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private CatalogSnapshot snapshot;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        // The query cache would answer the entity path from memory too.
+        context = Fixtures.startApplication("--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+        snapshot = context.getBean(CatalogSnapshot.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        Fixtures.seedCatalog(context.getBean(JdbcTemplate.class), rows);
+        snapshot.refresh();
+
+        long entityBytes = retainedBytes(this::loadEntities);
+        System.out.printf("%nSnapshot: %s; heap retained by the loaded entities: ~%d bytes%n",
+                snapshot.footprint(), entityBytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CatalogSnapshot.Footprint refreshSnapshot() {
+        snapshot.refresh();
+        return snapshot.footprint();
+    }
+
+    @Benchmark
+    public List<Book> loadEntities() {
+        return transactionTemplate.execute(status -> bookRepository.findAll());
+    }
+
+    @Benchmark
+    public long countByLanguageFromSnapshot() {
+        return snapshot.countByLanguage("pt");
+    }
+
+    @Benchmark
+    public long countByLanguageFromEntities() {
+        return bookRepository.findByPrimaryLanguage("pt").size();
+    }
+
+    @Benchmark
+    public CatalogSnapshot.Aggregates aggregatesFromSnapshot() {
+        return snapshot.aggregates("pt");
+    }
+
+    @Benchmark
+    public double averageFromEntities() {
+        return bookRepository.findByPrimaryLanguage("pt").stream()
+                .map(Book::getDownloadCount).filter(d -> d != null)
+                .mapToDouble(Double::doubleValue).average().orElse(0);
+    }
+
+    @Benchmark
+    public List<RankedBookDTO> topTenFromSnapshot() {
+        return snapshot.top(null, 10);
+    }
+
+    @Benchmark
+    public List<Book> topTenFromEntities() {
+        return bookRepository.findTop10ByOrderByDownloadCountDesc();
+    }
+
+    @Benchmark
+    public long[] aliveInYearFromSnapshot() {
+        return snapshot.authorsAliveIn(1800);
+    }
+
+    @Benchmark
+    public List<Author> aliveInYearFromEntities() {
+        return authorRepository.findAuthorsAliveInYear(1800);
+    }
+
+    // Rough live-heap difference while the result of the loader is reachable.
+    private static long retainedBytes(Supplier<Object> loader) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Object retained = loader.get();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+}
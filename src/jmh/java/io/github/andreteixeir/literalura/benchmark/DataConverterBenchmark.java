@@ -0,0 +1,59 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.andreteixeir.literalura.dto.ApiResponseDTO;
+import io.github.andreteixeir.literalura.service.DataConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a recorded Gutendex page (32 books): databinding of the whole response from a String
+ * and from a stream, and the streaming reader used by the catalog import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataConverterBenchmark {
+    private DataConverter converter;
+    private byte[] page;
+    private String pageText;
+
+    @Setup
+    public void setUp() {
+        converter = new DataConverter(new ObjectMapper(), new SimpleMeterRegistry());
+        page = Fixtures.booksPage();
+        pageText = new String(page, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ApiResponseDTO getDataFromString() {
+        return converter.getData(pageText, ApiResponseDTO.class);
+    }
+
+    @Benchmark
+    public ApiResponseDTO getDataFromStream() {
+        return converter.getData(new ByteArrayInputStream(page), ApiResponseDTO.class);
+    }
+
+    @Benchmark
+    public String readResults(Blackhole blackhole) {
+        return converter.readResults(new ByteArrayInputStream(page), blackhole::consume);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same repeated listings with Hibernate's second-level and query caches on and off, on a
+ * catalog of {@code rows} books. The difference is what a cache hit saves over a round trip to H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityCacheBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private long middleBookId;
+
+    @Setup
+    public void setUp() {
+        context = Fixtures.startApplication(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cached,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cached);
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+        Fixtures.seedCatalog(context.getBean(JdbcTemplate.class), rows);
+        middleBookId = rows / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesAfter() {
+        return bookRepository.findSummariesAfter(middleBookId, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesByLanguageAfter() {
+        return bookRepository.findSummariesByLanguageAfter("pt", middleBookId, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findTop10Summaries() {
+        return bookRepository.findTop10Summaries();
+    }
+
+    /** One page of the author listing: the ids, then the authors with their books. */
+    @Benchmark
+    public List<Author> authorsWithBooks() {
+        List<Long> ids = authorRepository.findPageAfter(middleBookId / 8, Limit.of(20)).stream().map(Author::getId).toList();
+        return authorRepository.findWithBooksByIdIn(ids);
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.LiteraluraApplication;
+import io.github.andreteixeir.literalura.model.SearchKeys;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Shared setup for the benchmarks: the recorded Gutendex page, a local stub server, a generated
+ * catalog and an application context backed by the in-memory H2 database of the test profile.
+ */
+final class Fixtures {
+    static final String BOOKS_PAGE = "/gutendex/books-page.json";
+    private static final String[] LANGUAGES = {"en", "en", "en", "pt", "fr", "de", "es", "fi"};
+    private static final String[] SURNAMES = {"Austen", "Machado", "Tolstoy", "Dickens", "Twain", "Alencar", "Verne", "Hugo"};
+    private static final String[] WORDS = {"Garden", "River", "Night", "Letters", "Voyage", "Stories", "Winter", "House"};
+    private static final int SEED_BATCH = 1_000;
+    private static final Pattern BOOK_ID = Pattern.compile("\"id\": (\\d+)");
+
+    private Fixtures() {}
+
+    static byte[] booksPage() {
+        try (InputStream in = Fixtures.class.getResourceAsStream(BOOKS_PAGE)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found on the classpath: " + BOOKS_PAGE);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The recorded page with every title prefixed and every Gutendex id moved to a range of its own,
+     * so each page number yields books that are not saved yet, and without a "next" link, so an
+     * import stops after it.
+     */
+    static byte[] uniqueBooksPage(String prefix, int page) {
+        return renumber(new String(booksPage(), StandardCharsets.UTF_8), page)
+                .replace("\"title\": \"", "\"title\": \"" + prefix + " ")
+                .replaceFirst("\"next\": \"[^\"]*\"", "\"next\": null")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Shifts the Gutendex ids of a page (1000 to 2147 in the recording) by {@code page} * 10000.
+     */
+    static String renumber(String json, int page) {
+        return BOOK_ID.matcher(json).replaceAll(m -> "\"id\": " + (page * 10_000 + Integer.parseInt(m.group(1))));
+    }
+
+    /**
+     * Starts a local HTTP server answering every request under /books/ with the supplied body.
+     */
+    static HttpServer stubServer(Supplier<byte[]> body) {
+        // Without TCP_NODELAY the JDK server's header and body writes hit delayed ACKs (~40 ms per request).
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/books/", exchange -> {
+                byte[] bytes = body.get();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Inserts {@code rows} books with ids (and Gutendex ids) 1..rows and a quarter as many authors straight through JDBC,
+     * with long-tailed download counts and a fixed random seed. Every tenth book also lists a second language.
+     *
+     * @return The number of authors inserted (ids 1..n).
+     */
+    static int seedCatalog(JdbcTemplate jdbcTemplate, int rows) {
+        Random random = new Random(42);
+        int authors = Math.max(1, rows / 4);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 1; i <= authors; i++) {
+            int birth = 1500 + random.nextInt(500);
+            Integer death = random.nextInt(10) == 0 ? null : birth + 20 + random.nextInt(70);
+            String name = SURNAMES[i % SURNAMES.length] + ", Autor " + i;
+            batch.add(new Object[]{i, name, SearchKeys.normalize(name), birth, death});
+            if (batch.size() == SEED_BATCH || i == authors) {
+                jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, name_key, birth_year, death_year) VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        for (int i = 1; i <= rows; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            // Long-tailed download counts, like the real catalog.
+            double downloads = Math.floor(10 / Math.pow(1 - random.nextDouble(), 1.5));
+            batch.add(new Object[]{i, i, title, SearchKeys.normalize(title), LANGUAGES[random.nextInt(LANGUAGES.length)], downloads, 1 + random.nextInt(authors)});
+            if (batch.size() == SEED_BATCH || i == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (id, gutendex_id, title, title_key, language, download_count, author_id) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("INSERT INTO book_authors (book_id, author_id) SELECT id, author_id FROM books");
+        jdbcTemplate.update("INSERT INTO book_languages (book_id, language) SELECT id, language FROM books");
+        jdbcTemplate.update("INSERT INTO book_languages (book_id, language) " +
+                "SELECT id, CASE WHEN language = 'en' THEN 'pt' ELSE 'en' END FROM books WHERE MOD(id, 10) = 0");
+        return authors;
+    }
+
+    static String baseUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort() + "/books/";
+    }
+
+    /**
+     * Starts the application without the console and the web server, on the H2 test profile.
+     *
+     * @param args Property overrides as command-line arguments (e.g. "--literalura.gutendex.base-url=...").
+     */
+    static ConfigurableApplicationContext startApplication(String... args) {
+        return new SpringApplicationBuilder(LiteraluraApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=warn")
+                .run(args);
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.LanguageCountDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.CatalogSearchService;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import io.github.andreteixeir.literalura.service.GutendexIdFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries against an H2 database seeded with {@code rows} books (and a quarter as many
+ * authors), next to the in-memory structures that replace some of them. Run with
+ * {@code -p rows=1000000} for the large-catalog numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private DownloadLeaderboard leaderboard;
+    private AuthorLifespanIndex lifespanIndex;
+    private CatalogStatistics statistics;
+    private CatalogSearchService searchService;
+    private GutendexIdFilter idFilter;
+    private String existingTitleKey;
+    private String existingNameKey;
+    private long middleBookId;
+
+    @Setup
+    public void setUp() {
+        context = Fixtures.startApplication();
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+        leaderboard = context.getBean(DownloadLeaderboard.class);
+        lifespanIndex = context.getBean(AuthorLifespanIndex.class);
+        statistics = context.getBean(CatalogStatistics.class);
+        searchService = context.getBean(CatalogSearchService.class);
+        idFilter = context.getBean(GutendexIdFilter.class);
+        seed(context.getBean(JdbcTemplate.class));
+        leaderboard.rebuild();
+        lifespanIndex.rebuild();
+        statistics.rebuild();
+        idFilter.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        int authors = Fixtures.seedCatalog(jdbcTemplate, rows);
+        existingTitleKey = jdbcTemplate.queryForObject("SELECT title_key FROM books WHERE id = ?", String.class, rows / 2);
+        existingNameKey = jdbcTemplate.queryForObject("SELECT name_key FROM authors WHERE id = ?", String.class, authors / 2 + 1);
+        middleBookId = rows / 2;
+    }
+
+    @Benchmark
+    public boolean existsByGutendexId() {
+        return bookRepository.existsByGutendexId(rows / 2);
+    }
+
+    /** The in-memory check bulk imports make before sending anything to the database. */
+    @Benchmark
+    public boolean containsInIdFilter() {
+        return idFilter.contains(rows / 2);
+    }
+
+    @Benchmark
+    public boolean existsByTitleKey() {
+        return bookRepository.existsByTitleKey(existingTitleKey);
+    }
+
+    @Benchmark
+    public Optional<Author> findByNameKey() {
+        return authorRepository.findByNameKey(existingNameKey);
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesAfter() {
+        return bookRepository.findSummariesAfter(middleBookId, Limit.of(100));
+    }
+
+    /** Offset paging to the middle of the table, for comparison with the keyset page above. */
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesAtOffset() {
+        return bookRepository.findSummaries(PageRequest.of((int) (middleBookId / 100), 100)).getContent();
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesByLanguageAfter() {
+        return bookRepository.findSummariesByLanguageAfter("pt", middleBookId, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<Author> findPageAfter() {
+        return authorRepository.findPageAfter(middleBookId / 8, Limit.of(100));
+    }
+
+    /** Every book listing the language, through the (language, book_id) index of book_languages. */
+    @Benchmark
+    public List<Book> findByLanguage() {
+        return bookRepository.findByLanguage("pt");
+    }
+
+    /** The first language only, from the language column of books, for comparison with the query above. */
+    @Benchmark
+    public List<Book> findByPrimaryLanguage() {
+        return bookRepository.findByPrimaryLanguage("pt");
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesByAnyLanguageAfter() {
+        return bookRepository.findSummariesByAnyLanguageAfter(List.of("pt", "fr"), middleBookId, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> findSummariesByAllLanguagesAfter() {
+        return bookRepository.findSummariesByAllLanguagesAfter(List.of("en", "pt"), 2, middleBookId, Limit.of(100));
+    }
+
+    @Benchmark
+    public List<LanguageCountDTO> countByLanguage() {
+        return bookRepository.countByLanguage();
+    }
+
+    @Benchmark
+    public void statisticsFromAggregateQueries(Blackhole blackhole) {
+        blackhole.consume(bookRepository.count());
+        blackhole.consume(authorRepository.count());
+        blackhole.consume(bookRepository.getAverageDownloadCount());
+        blackhole.consume(bookRepository.findTopByOrderByDownloadCountDesc());
+        blackhole.consume(bookRepository.findTopByOrderByDownloadCountAsc());
+    }
+
+    @Benchmark
+    public CatalogStatistics.Snapshot statisticsFromSnapshot() {
+        return statistics.snapshot();
+    }
+
+    @Benchmark
+    public List<Book> topTenFromRepository() {
+        return bookRepository.findTop10ByOrderByDownloadCountDesc();
+    }
+
+    @Benchmark
+    public List<BookSummaryDTO> topTenSummariesFromRepository() {
+        return bookRepository.findTop10Summaries();
+    }
+
+    @Benchmark
+    public List<RankedBookDTO> topTenFromLeaderboard() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    public List<RankedBookDTO> topTenByLanguageFromLeaderboard() {
+        return leaderboard.topByLanguage("pt", 10);
+    }
+
+    @Benchmark
+    public List<Author> aliveInYearFromRepository() {
+        return authorRepository.findAuthorsAliveInYear(1800);
+    }
+
+    @Benchmark
+    public long[] aliveInYearFromIndex() {
+        return lifespanIndex.aliveIn(1800);
+    }
+
+    @Benchmark
+    public List<Author> searchAuthors() {
+        return searchService.searchAuthors("machado autor", 5);
+    }
+
+    @Benchmark
+    public List<CatalogSearchService.Match> searchBooks() {
+        return searchService.searchBooks("river garden", 5);
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first query: starting the application in a fresh JVM and counting the books, in the
+ * default mode (with the web server) and with the "fast-start" profile, against an H2 file database
+ * holding {@code rows} books. Each fork measures one cold start. The database is created and
+ * seeded once, in a separate JVM so the measured one stays cold, and kept in
+ * target/startup-benchmark for later runs. The AOT context and the CDS archive of
+ * {@code mvn -P fast-start package} need the packaged jar and are not covered here (see the README).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    private static final Path DATABASES = Path.of("target", "startup-benchmark");
+
+    @Param({"default", "fast-start"})
+    public String mode;
+
+    @Param({"0", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void seedDatabase() throws IOException, InterruptedException {
+        if (Files.exists(databaseFile(rows))) {
+            return;
+        }
+        Process seed = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), Seed.class.getName(), String.valueOf(rows))
+                .inheritIO()
+                .start();
+        if (seed.waitFor() != 0) {
+            throw new IllegalStateException("Seeding the startup database failed with exit code " + seed.exitValue());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long firstQuery() {
+        String url = "--spring.datasource.url=" + databaseUrl(rows);
+        context = "fast-start".equals(mode)
+                // Without JDBC metadata, Hibernate picks the dialect from the database name and version.
+                ? Fixtures.startApplication("--spring.profiles.active=fast-start", url,
+                        "--spring.jpa.properties.jakarta.persistence.database-product-name=H2",
+                        "--spring.jpa.properties.jakarta.persistence.database-major-version=2",
+                        "--spring.jpa.properties.jakarta.persistence.database-minor-version=3")
+                : Fixtures.startApplication("--spring.main.web-application-type=servlet", "--server.port=0", url,
+                        "--spring.jpa.hibernate.ddl-auto=update");
+        return context.getBean(BookRepository.class).count();
+    }
+
+    private static Path databaseFile(int rows) {
+        return DATABASES.resolve("literalura-" + rows + ".mv.db");
+    }
+
+    private static String databaseUrl(int rows) {
+        return "jdbc:h2:file:" + DATABASES.toAbsolutePath().resolve("literalura-" + rows)
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    }
+
+    /**
+     * Creates the schema of a startup database and fills it with a generated catalog.
+     */
+    public static final class Seed {
+        public static void main(String[] args) {
+            int rows = Integer.parseInt(args[0]);
+            try (ConfigurableApplicationContext context = Fixtures.startApplication("--spring.datasource.url=" + databaseUrl(rows),
+                    "--spring.jpa.hibernate.ddl-auto=update", "--literalura.startup.warm-up=false")) {
+                if (rows > 0) {
+                    Fixtures.seedCatalog(context.getBean(JdbcTemplate.class), rows);
+                }
+            }
+        }
+    }
+}
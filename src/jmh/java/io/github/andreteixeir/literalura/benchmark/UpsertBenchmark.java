@@ -0,0 +1,85 @@
+package io.github.andreteixeir.literalura.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.dto.ApiResponseDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.service.BookRegistrationService;
+import io.github.andreteixeir.literalura.service.BookUpsertService;
+import io.github.andreteixeir.literalura.service.CatalogIngestionService;
+import io.github.andreteixeir.literalura.service.IDataConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saving one recorded page of new books (32 rows): book by book through BookRegistrationService,
+ * the path of a single search result, against one BookUpsertService call for the whole page,
+ * and against the import of a page fetched from a stub server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpsertBenchmark {
+    private final AtomicInteger pages = new AtomicInteger();
+    private HttpServer server;
+    private ConfigurableApplicationContext context;
+    private IDataConverter converter;
+    private BookRegistrationService registrationService;
+    private BookUpsertService upsertService;
+    private CatalogIngestionService ingestionService;
+
+    @Setup
+    public void setUp() {
+        server = Fixtures.stubServer(() -> Fixtures.uniqueBooksPage("import", pages.incrementAndGet()));
+        // No pacing: the benchmark measures the import itself, not the crawl rate limit.
+        context = Fixtures.startApplication("--literalura.gutendex.base-url=" + Fixtures.baseUrl(server),
+                "--literalura.fetch.rate=1000000", "--literalura.fetch.burst=1000000");
+        converter = context.getBean(IDataConverter.class);
+        registrationService = context.getBean(BookRegistrationService.class);
+        upsertService = context.getBean(BookUpsertService.class);
+        ingestionService = context.getBean(CatalogIngestionService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int saveBookOneByOne() {
+        byte[] page = Fixtures.uniqueBooksPage("single", pages.incrementAndGet());
+        int saved = 0;
+        for (BookDTO bookDTO : converter.getData(new ByteArrayInputStream(page), ApiResponseDTO.class).results()) {
+            saved += registrationService.register(bookDTO).status() == BookRegistrationService.Status.SAVED ? 1 : 0;
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public int upsertPage() {
+        byte[] page = Fixtures.uniqueBooksPage("batch", pages.incrementAndGet());
+        return upsertService.upsert(converter.getData(new ByteArrayInputStream(page), ApiResponseDTO.class).results()).inserted().size();
+    }
+
+    @Benchmark
+    public long ingestPage() {
+        return ingestionService.ingestCatalog().booksSaved();
+    }
+}
@@ -1,21 +1,21 @@
 package io.github.andreteixeir.literalura;
 
 import io.github.andreteixeir.literalura.principal.Principal;
-import io.github.andreteixeir.literalura.repository.AuthorRepository;
-import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LiteraluraApplication implements CommandLineRunner {
 
-	private final BookRepository bookRepository;
-	private final AuthorRepository authorRepository;
+	// Only present when the "console" profile is active; otherwise the application serves the REST API only.
+	private final ObjectProvider<Principal> principal;
 
-	public LiteraluraApplication(BookRepository bookRepository, AuthorRepository authorRepository) {
-		this.bookRepository = bookRepository;
-		this.authorRepository = authorRepository;
+	public LiteraluraApplication(ObjectProvider<Principal> principal) {
+		this.principal = principal;
 	}
 
 	public static void main(String[] args) {
@@ -24,7 +24,6 @@ public class LiteraluraApplication implements CommandLineRunner {
 
 	@Override
 	public void run(String... args) throws Exception {
-		Principal principal = new Principal(bookRepository, authorRepository);
-		principal.displayMenu();
+		principal.ifAvailable(Principal::displayMenu);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package io.github.andreteixeir.literalura.config;
+
+/**
+ * Condition of the {@code ApplicationStartedEvent} listeners that load the in-memory views and
+ * run the schema backfills. They are skipped when {@code literalura.startup.warm-up} is false
+ * (the "fast-start" profile): the condition is evaluated before the listener's bean is looked up,
+ * so lazily initialized beans are not created either, and each view is loaded by its first read.
+ */
+public final class StartupWarmUp {
+    public static final String ENABLED = "@environment.getProperty('literalura.startup.warm-up', 'true') == 'true'";
+
+    private StartupWarmUp() {}
+}
@@ -0,0 +1,24 @@
+package io.github.andreteixeir.literalura.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Web configuration of the REST API.
+ */
+@Configuration
+public class WebConfig {
+
+    /**
+     * Adds an ETag (hash of the response body) to every API response and answers
+     * If-None-Match revalidations with 304 Not Modified, so unchanged listings are not sent again.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
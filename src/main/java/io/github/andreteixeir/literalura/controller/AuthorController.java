@@ -0,0 +1,84 @@
+package io.github.andreteixeir.literalura.controller;
+
+import io.github.andreteixeir.literalura.dto.AuthorSummaryDTO;
+import io.github.andreteixeir.literalura.dto.PageDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.CatalogSearchService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * REST endpoints for authors: listing, lookup by name and authors alive in a period.
+ */
+@RestController
+@RequestMapping("/api/authors")
+public class AuthorController {
+    private static final int MAX_SEARCH_RESULTS = 20;
+
+    private final AuthorRepository authorRepository;
+    private final AuthorLifespanIndex lifespanIndex;
+    private final CatalogSearchService searchService;
+    private final CacheHeaders cacheHeaders;
+
+    public AuthorController(AuthorRepository authorRepository, AuthorLifespanIndex lifespanIndex,
+                            CatalogSearchService searchService, CacheHeaders cacheHeaders) {
+        this.authorRepository = authorRepository;
+        this.lifespanIndex = lifespanIndex;
+        this.searchService = searchService;
+        this.cacheHeaders = cacheHeaders;
+    }
+
+    /**
+     * Lists the registered authors with their books, in id order.
+     * Example: GET /api/authors?page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<PageDTO<AuthorSummaryDTO>> list(Pageable pageable) {
+        // Two queries per page: the page of authors, then their books in one fetch join.
+        Slice<Author> slice = authorRepository.findSlice(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        List<Long> ids = slice.getContent().stream().map(Author::getId).toList();
+        List<AuthorSummaryDTO> authors = ids.isEmpty() ? List.of()
+                : authorRepository.findWithBooksByIdIn(ids).stream().map(AuthorSummaryDTO::of).toList();
+        return cacheHeaders.ok(new PageDTO<>(authors, slice.getNumber(), slice.getSize(), slice.hasNext()));
+    }
+
+    /**
+     * Authors alive in a year, or at any point of a range of years.
+     * Example: GET /api/authors/alive?year=1850 or GET /api/authors/alive?year=1800&to=1850
+     */
+    @GetMapping("/alive")
+    public ResponseEntity<PageDTO<AuthorSummaryDTO>> alive(@RequestParam int year, @RequestParam(required = false) Integer to,
+                                                           Pageable pageable) {
+        long[] ids = lifespanIndex.aliveBetween(year, to == null ? year : to);
+        long from = (long) pageable.getPageNumber() * pageable.getPageSize();
+        int start = (int) Math.min(from, ids.length);
+        int end = Math.min(ids.length, start + pageable.getPageSize());
+        List<Long> page = Arrays.stream(ids, start, end).boxed().toList();
+        List<AuthorSummaryDTO> authors = page.isEmpty() ? List.of()
+                : authorRepository.findWithBooksByIdIn(page).stream().map(AuthorSummaryDTO::of).toList();
+        return cacheHeaders.ok(new PageDTO<>(authors, pageable.getPageNumber(), pageable.getPageSize(), end < ids.length));
+    }
+
+    /**
+     * Looks up authors by (partial or approximate) name, best matches first.
+     * Example: GET /api/authors/search?name=machado
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<AuthorSummaryDTO>> search(@RequestParam String name, @RequestParam(defaultValue = "5") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return cacheHeaders.ok(searchService.searchAuthors(name, limit).stream().map(AuthorSummaryDTO::of).toList());
+    }
+}
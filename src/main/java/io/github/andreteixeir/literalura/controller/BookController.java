@@ -0,0 +1,104 @@
+package io.github.andreteixeir.literalura.controller;
+
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.PageDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.model.SearchKeys;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.service.BookRegistrationService;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * REST endpoints for books: listing, download rankings and registration from Gutendex.
+ */
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+    private final BookRepository bookRepository;
+    private final DownloadLeaderboard leaderboard;
+    private final BookRegistrationService registrationService;
+    private final CacheHeaders cacheHeaders;
+
+    public BookController(BookRepository bookRepository, DownloadLeaderboard leaderboard,
+                          BookRegistrationService registrationService, CacheHeaders cacheHeaders) {
+        this.bookRepository = bookRepository;
+        this.leaderboard = leaderboard;
+        this.registrationService = registrationService;
+        this.cacheHeaders = cacheHeaders;
+    }
+
+    /**
+     * Lists the registered books in id order, optionally only those listing any of the given
+     * languages, or all of them with match=all.
+     * Example: GET /api/books?language=en,fr&match=all&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<PageDTO<BookSummaryDTO>> list(@RequestParam(required = false) List<String> language,
+                                                        @RequestParam(defaultValue = "any") String match, Pageable pageable) {
+        // Rows are always ordered by id; a client-supplied sort is ignored.
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<String> languages = SearchKeys.languageCodes(language);
+        if (languages.isEmpty()) {
+            return cacheHeaders.ok(PageDTO.of(bookRepository.findSummaries(page)));
+        }
+        return cacheHeaders.ok(PageDTO.of(switch (match) {
+            case "any" -> bookRepository.findSummariesByAnyLanguage(languages, page);
+            case "all" -> bookRepository.findSummariesByAllLanguages(languages, languages.size(), page);
+            default -> throw new IllegalArgumentException("match must be any or all: " + match);
+        }));
+    }
+
+    /**
+     * The most downloaded books, overall or by language or author.
+     * Example: GET /api/books/top?n=10&language=en
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<RankedBookDTO>> top(@RequestParam(defaultValue = "10") int n,
+                                                   @RequestParam(required = false) String language,
+                                                   @RequestParam(required = false) Long authorId) {
+        if (n < 1 || n > leaderboard.capacity()) {
+            throw new IllegalArgumentException("n must be between 1 and " + leaderboard.capacity());
+        }
+        List<RankedBookDTO> books;
+        if (authorId != null) {
+            books = leaderboard.topByAuthor(authorId, n);
+        } else if (language != null) {
+            books = leaderboard.topByLanguage(language.toLowerCase(Locale.ROOT), n);
+        } else {
+            books = leaderboard.top(n);
+        }
+        return cacheHeaders.ok(books);
+    }
+
+    /**
+     * Searches Gutendex by title and registers the first result.
+     * Example: POST /api/books?title=dom%20casmurro
+     */
+    @PostMapping
+    public ResponseEntity<?> register(@RequestParam String title) {
+        BookRegistrationService.Registration registration = registrationService.searchAndRegister(title);
+        return switch (registration.status()) {
+            case SAVED -> ResponseEntity.status(HttpStatus.CREATED).body(registration.book());
+            case ALREADY_REGISTERED -> problem(HttpStatus.CONFLICT, "Book already registered: " + title);
+            case NOT_FOUND -> problem(HttpStatus.NOT_FOUND, "No book found on Gutendex for: " + title);
+            case NO_AUTHOR -> problem(HttpStatus.UNPROCESSABLE_ENTITY, "The book has no author and cannot be registered: " + title);
+        };
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatus status, String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+}
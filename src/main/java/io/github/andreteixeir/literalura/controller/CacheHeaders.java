@@ -0,0 +1,24 @@
+package io.github.andreteixeir.literalura.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Builds responses for the read endpoints with a shared Cache-Control policy.
+ */
+@Component
+class CacheHeaders {
+    private final CacheControl cacheControl;
+
+    CacheHeaders(@Value("${literalura.api.cache-max-age}") Duration maxAge) {
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    <T> ResponseEntity<T> ok(T body) {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body);
+    }
+}
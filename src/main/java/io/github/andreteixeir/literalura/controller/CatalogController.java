@@ -0,0 +1,89 @@
+package io.github.andreteixeir.literalura.controller;
+
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import io.github.andreteixeir.literalura.repository.IngestionCheckpointRepository;
+import io.github.andreteixeir.literalura.service.CatalogAnalytics;
+import io.github.andreteixeir.literalura.service.CatalogIngestionService;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.OperationAlreadyRunningException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * REST endpoints for the catalog as a whole: statistics and the full Gutendex import.
+ */
+@RestController
+@RequestMapping("/api")
+public class CatalogController {
+    private final CatalogStatistics catalogStatistics;
+    private final CatalogAnalytics analytics;
+    private final CatalogIngestionService ingestionService;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final CacheHeaders cacheHeaders;
+
+    public CatalogController(CatalogStatistics catalogStatistics, CatalogAnalytics analytics, CatalogIngestionService ingestionService,
+                             IngestionCheckpointRepository checkpointRepository, CacheHeaders cacheHeaders) {
+        this.catalogStatistics = catalogStatistics;
+        this.analytics = analytics;
+        this.ingestionService = ingestionService;
+        this.checkpointRepository = checkpointRepository;
+        this.cacheHeaders = cacheHeaders;
+    }
+
+    /**
+     * The precomputed catalog statistics.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<CatalogStatistics.Snapshot> statistics() {
+        return cacheHeaders.ok(catalogStatistics.snapshot());
+    }
+
+    /**
+     * Download statistics (count, sum, min, max, average and percentiles) grouped by
+     * {@code language}, {@code author} (id) or {@code century} (of the author's birth).
+     */
+    @GetMapping("/statistics/downloads")
+    public ResponseEntity<Map<?, CatalogAnalytics.Summary>> downloads(@RequestParam(defaultValue = "language") String by) {
+        return cacheHeaders.ok(switch (by) {
+            case "language" -> analytics.byLanguage();
+            case "author" -> analytics.byAuthor();
+            case "century" -> analytics.byBirthCentury();
+            default -> throw new IllegalArgumentException("by must be language, author or century: " + by);
+        });
+    }
+
+    /**
+     * Starts a full catalog import in the background; its progress is available at /api/imports/latest.
+     */
+    @PostMapping("/imports")
+    public ResponseEntity<Void> startImport() {
+        if (ingestionService.isRunning()) {
+            throw new OperationAlreadyRunningException("A catalog import is already running");
+        }
+        Thread.ofVirtual().name("catalog-import").start(() -> {
+            try {
+                ingestionService.ingestCatalog();
+            } catch (RuntimeException e) {
+                System.err.println("Catalog import failed: " + e.getMessage());
+            }
+        });
+        return ResponseEntity.accepted().location(URI.create("/api/imports/latest")).build();
+    }
+
+    /**
+     * The checkpoint of the latest import: pages and books committed, and whether it completed.
+     */
+    @GetMapping("/imports/latest")
+    public ResponseEntity<IngestionCheckpoint> latestImport() {
+        return checkpointRepository.findById(CatalogIngestionService.CHECKPOINT_NAME)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -5,4 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record ApiResponseDTO(@JsonAlias("results") List<BookDTO> results) {}
\ No newline at end of file
+public record ApiResponseDTO(
+        @JsonAlias("results") List<BookDTO> results,
+        @JsonAlias("count") Integer count,
+        @JsonAlias("next") String next
+) {}
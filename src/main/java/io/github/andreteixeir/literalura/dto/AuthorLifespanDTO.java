@@ -0,0 +1,6 @@
+package io.github.andreteixeir.literalura.dto;
+
+/**
+ * The id and the birth/death years of an author, as loaded into the lifespan index.
+ */
+public record AuthorLifespanDTO(Long authorId, Integer birthYear, Integer deathYear) {}
@@ -0,0 +1,19 @@
+package io.github.andreteixeir.literalura.dto;
+
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+
+import java.util.List;
+
+/**
+ * An author as returned by the REST API, with the titles of their registered books.
+ */
+public record AuthorSummaryDTO(Long id, String name, Integer birthYear, Integer deathYear, List<String> books) {
+    /**
+     * @param author An author whose books are already loaded.
+     */
+    public static AuthorSummaryDTO of(Author author) {
+        return new AuthorSummaryDTO(author.getId(), author.getName(), author.getBirthYear(), author.getDeathYear(),
+                author.getBooks().stream().map(Book::getTitle).toList());
+    }
+}
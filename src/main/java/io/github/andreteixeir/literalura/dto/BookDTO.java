@@ -6,6 +6,7 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record BookDTO(
+        @JsonAlias("id") Integer id,
         @JsonAlias("title") String title,
         @JsonAlias("authors") List<AuthorDTO> authors,
         @JsonAlias("languages") List<String> languages,
@@ -0,0 +1,14 @@
+package io.github.andreteixeir.literalura.dto;
+
+/**
+ * Read-only projection with just the columns printed by the book listings,
+ * so listing queries never load full Book/Author entities.
+ * The id is the keyset cursor used to fetch the next page.
+ */
+public record BookSummaryDTO(
+        Long id,
+        String title,
+        String authorName,
+        String language,
+        Double downloadCount
+) {}
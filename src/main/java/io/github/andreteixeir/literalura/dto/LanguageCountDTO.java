@@ -0,0 +1,6 @@
+package io.github.andreteixeir.literalura.dto;
+
+/**
+ * Number of registered books in one language.
+ */
+public record LanguageCountDTO(String language, Long count) {}
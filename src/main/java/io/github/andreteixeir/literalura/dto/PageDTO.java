@@ -0,0 +1,19 @@
+package io.github.andreteixeir.literalura.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * One page of a REST listing. No total is computed, so a page never costs a COUNT query.
+ *
+ * @param content The rows of the page.
+ * @param page    The zero-based page number.
+ * @param size    The requested page size.
+ * @param hasNext Whether another page follows.
+ */
+public record PageDTO<T>(List<T> content, int page, int size, boolean hasNext) {
+    public static <T> PageDTO<T> of(Slice<T> slice) {
+        return new PageDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.andreteixeir.literalura.dto;
+
+/**
+ * A book as shown in the download rankings.
+ */
+public record RankedBookDTO(
+        Long bookId,
+        String title,
+        Long authorId,
+        String authorName,
+        String language,
+        Double downloadCount
+) {}
@@ -0,0 +1,11 @@
+package io.github.andreteixeir.literalura.event;
+
+/**
+ * Published after a new author is saved.
+ */
+public record AuthorSavedEvent(
+        Long authorId,
+        String name,
+        Integer birthYear,
+        Integer deathYear
+) {}
@@ -0,0 +1,21 @@
+package io.github.andreteixeir.literalura.event;
+
+import java.util.List;
+
+/**
+ * Published after a new book is saved, so in-memory views of the catalog
+ * (statistics, rankings, indexes) can be updated incrementally.
+ *
+ * @param language  The first listed language, or null if the book lists none.
+ * @param languages Every listed language, the first one first.
+ */
+public record BookSavedEvent(
+        Long bookId,
+        Integer gutendexId,
+        String title,
+        String language,
+        List<String> languages,
+        Double downloadCount,
+        Long authorId,
+        String authorName
+) {}
@@ -0,0 +1,10 @@
+package io.github.andreteixeir.literalura.event;
+
+/**
+ * Published after a catalog import finishes, so views of the catalog that are only rebuilt
+ * in bulk (such as the columnar snapshot) can be refreshed.
+ */
+public record CatalogImportedEvent(
+        int pages,
+        long booksSaved
+) {}
@@ -0,0 +1,27 @@
+package io.github.andreteixeir.literalura.event;
+
+import java.util.List;
+
+/**
+ * Published once per committed batch of the download refresh, with the books whose download
+ * count changed, so in-memory views of the catalog can be corrected without being rebuilt.
+ */
+public record DownloadCountsChangedEvent(
+        List<Change> changes
+) {
+    /**
+     * One updated book.
+     *
+     * @param previous The download count stored before the refresh, or null if it was unknown.
+     * @param current  The download count stored now.
+     */
+    public record Change(
+            Long bookId,
+            String title,
+            String language,
+            Long authorId,
+            String authorName,
+            Double previous,
+            Double current
+    ) {}
+}
@@ -0,0 +1,11 @@
+package io.github.andreteixeir.literalura.event;
+
+import java.util.List;
+
+/**
+ * Published when stored books that were saved without a Gutendex id receive theirs, so the
+ * in-memory id filter learns them.
+ */
+public record GutendexIdsTaggedEvent(
+        List<Integer> gutendexIds
+) {}
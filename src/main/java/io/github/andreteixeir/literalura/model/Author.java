@@ -1,22 +1,34 @@
 package io.github.andreteixeir.literalura.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "authors", indexes = @Index(name = "idx_authors_name_key", columnList = "name_key", unique = true))
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
     private String name;
 
+    // Normalized form of the name; its unique index backs author lookups during imports.
+    @Column(name = "name_key")
+    private String nameKey;
+
     private Integer birthYear;
     private Integer deathYear;
 
-    @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Every book the author is credited on, through the book_authors join table; loaded on demand,
+    // so listings that need the titles fetch them explicitly (fetch join / entity graph).
+    @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Book> books;
 
     // Default constructor
@@ -46,6 +58,14 @@ public class Author {
         this.name = name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    public void setNameKey(String nameKey) {
+        this.nameKey = nameKey;
+    }
+
     public Integer getBirthYear() {
         return birthYear;
     }
@@ -70,6 +90,12 @@ public class Author {
         this.books = books;
     }
 
+    @PrePersist
+    @PreUpdate
+    private void updateNameKey() {
+        nameKey = SearchKeys.normalize(name);
+    }
+
     @Override
     public String toString() {
         return "Author{" +
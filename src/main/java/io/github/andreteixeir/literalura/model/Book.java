@@ -1,23 +1,66 @@
 package io.github.andreteixeir.literalura.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_gutendex_id", columnList = "gutendex_id", unique = true),
+        @Index(name = "idx_books_title_key", columnList = "title_key"),
+        @Index(name = "idx_books_language", columnList = "language")
+})
 public class Book {
+    // Sequence-based IDs let Hibernate group inserts into JDBC batches (IDENTITY disables batching).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true)
+    // Not unique: different editions can share a title.
+    @Column(length = 1024)
     private String title;
 
+    // Normalized title (see SearchKeys), used for indexed search and to match books without a Gutendex id.
+    @Column(name = "title_key", length = 1024)
+    private String titleKey;
+
+    // Project Gutenberg book number: identifies the book for duplicate checks and download
+    // refreshes. Null for books saved before it was recorded.
+    @Column(name = "gutendex_id")
+    private Integer gutendexId;
+
+    // First listed language, used by the rankings and the analytics snapshot.
     private String language;
     private Double downloadCount;
 
-    @ManyToOne
+    // Every listed language, including the first one. The index on (language, book_id) serves the
+    // language filters and the per-language counts without reading the books table.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "book_languages",
+            joinColumns = @JoinColumn(name = "book_id"),
+            indexes = @Index(name = "idx_book_languages_language", columnList = "language, book_id"))
+    @Column(name = "language", nullable = false)
+    private Set<String> languages = new LinkedHashSet<>();
+
+    // First credited author, used by the listings and rankings.
+    @ManyToOne(fetch = FetchType.LAZY)
     private Author author;
 
+    // Every credited author, including the first one.
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @JoinTable(name = "book_authors",
+            joinColumns = @JoinColumn(name = "book_id"),
+            inverseJoinColumns = @JoinColumn(name = "author_id"))
+    private Set<Author> authors = new LinkedHashSet<>();
+
     // Default constructor
     public Book() {}
 
@@ -27,6 +70,12 @@ public class Book {
         this.language = language;
         this.downloadCount = downloadCount;
         this.author = author;
+        if (language != null) {
+            this.languages.add(language);
+        }
+        if (author != null) {
+            this.authors.add(author);
+        }
     }
 
     // Getters and Setters
@@ -46,6 +95,22 @@ public class Book {
         this.title = title;
     }
 
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public Integer getGutendexId() {
+        return gutendexId;
+    }
+
+    public void setGutendexId(Integer gutendexId) {
+        this.gutendexId = gutendexId;
+    }
+
     public String getLanguage() {
         return language;
     }
@@ -54,6 +119,14 @@ public class Book {
         this.language = language;
     }
 
+    public Set<String> getLanguages() {
+        return languages;
+    }
+
+    public void setLanguages(Set<String> languages) {
+        this.languages = languages;
+    }
+
     public Double getDownloadCount() {
         return downloadCount;
     }
@@ -70,6 +143,20 @@ public class Book {
         this.author = author;
     }
 
+    public Set<Author> getAuthors() {
+        return authors;
+    }
+
+    public void setAuthors(Set<Author> authors) {
+        this.authors = authors;
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateTitleKey() {
+        titleKey = SearchKeys.normalize(title);
+    }
+
     @Override
     public String toString() {
         return "Book{" +
@@ -0,0 +1,108 @@
+package io.github.andreteixeir.literalura.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker of a long-running import, committed together with each page
+ * so the import can resume from the last committed page after a restart.
+ * Jobs that walk the stored catalog instead of following links keep the last
+ * book id they committed as the watermark.
+ */
+@Entity
+@Table(name = "ingestion_checkpoints")
+public class IngestionCheckpoint {
+    @Id
+    private String name;
+
+    @Column(length = 2048)
+    private String nextUrl;
+
+    private Long watermark;
+    private Integer pagesCommitted;
+    private Long booksSaved;
+    private Boolean completed;
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public IngestionCheckpoint() {}
+
+    // Constructor with parameters
+    public IngestionCheckpoint(String name, String nextUrl) {
+        this.name = name;
+        this.nextUrl = nextUrl;
+        this.pagesCommitted = 0;
+        this.booksSaved = 0L;
+        this.completed = false;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNextUrl() {
+        return nextUrl;
+    }
+
+    public void setNextUrl(String nextUrl) {
+        this.nextUrl = nextUrl;
+    }
+
+    public Long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Long watermark) {
+        this.watermark = watermark;
+    }
+
+    public Integer getPagesCommitted() {
+        return pagesCommitted;
+    }
+
+    public void setPagesCommitted(Integer pagesCommitted) {
+        this.pagesCommitted = pagesCommitted;
+    }
+
+    public Long getBooksSaved() {
+        return booksSaved;
+    }
+
+    public void setBooksSaved(Long booksSaved) {
+        this.booksSaved = booksSaved;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionCheckpoint{" +
+                "name='" + name + '\'' +
+                ", nextUrl='" + nextUrl + '\'' +
+                ", watermark=" + watermark +
+                ", pagesCommitted=" + pagesCommitted +
+                ", booksSaved=" + booksSaved +
+                ", completed=" + completed +
+                '}';
+    }
+}
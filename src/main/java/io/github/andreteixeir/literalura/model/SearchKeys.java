@@ -0,0 +1,54 @@
+package io.github.andreteixeir.literalura.model;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the normalized search keys stored next to titles and author names.
+ * A key is lower-case, has no accents and keeps only letters and digits separated by
+ * single spaces, so "Dom Casmurro", "DOM  CASMURRO" and "Dom Cásmurro!" share one key.
+ */
+public final class SearchKeys {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchKeys() {}
+
+    /**
+     * Normalizes a title or name into its search key.
+     *
+     * @param text The original text (may be null).
+     * @return The normalized key, or null when the text is null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Normalizes language codes as they are stored: trimmed and lower-case, without blanks or
+     * repetitions, in their original order.
+     *
+     * @param codes The codes (e.g. Gutendex's "languages"); may be null or contain nulls.
+     * @return The normalized codes, possibly empty.
+     */
+    public static List<String> languageCodes(Collection<String> codes) {
+        if (codes == null) {
+            return List.of();
+        }
+        return List.copyOf(codes.stream()
+                .filter(Objects::nonNull)
+                .map(code -> code.trim().toLowerCase(Locale.ROOT))
+                .filter(code -> !code.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+}
@@ -1,33 +1,79 @@
 package io.github.andreteixeir.literalura.principal;
 
-import io.github.andreteixeir.literalura.dto.ApiResponseDTO;
-import io.github.andreteixeir.literalura.dto.AuthorDTO;
-import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
 import io.github.andreteixeir.literalura.model.Author;
 import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.model.SearchKeys;
 import io.github.andreteixeir.literalura.repository.AuthorRepository;
 import io.github.andreteixeir.literalura.repository.BookRepository;
-import io.github.andreteixeir.literalura.service.ApiConsumer;
-import io.github.andreteixeir.literalura.service.DataConverter;
-import io.github.andreteixeir.literalura.service.IDataConverter;
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.BookRegistrationService;
+import io.github.andreteixeir.literalura.service.CatalogAnalytics;
+import io.github.andreteixeir.literalura.service.CatalogArchiveService;
+import io.github.andreteixeir.literalura.service.CatalogIngestionService;
+import io.github.andreteixeir.literalura.service.CatalogSearchService;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import io.github.andreteixeir.literalura.service.DownloadRefreshService;
+import io.github.andreteixeir.literalura.service.EntityCacheStatistics;
+import io.github.andreteixeir.literalura.service.OperationAlreadyRunningException;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
+/**
+ * Interactive console menu, enabled with the "console" profile.
+ */
+@Component
+@Profile("console")
 public class Principal {
     private final Scanner scanner = new Scanner(System.in);
-    private final ApiConsumer consumer = new ApiConsumer();
-    private final IDataConverter converter = new DataConverter();
+    private final BookRegistrationService registrationService;
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
-    private final String API_BASE_URL = "https://gutendex.com/books/";
+    private final CatalogIngestionService ingestionService;
+    private final CatalogSearchService searchService;
+    private final CatalogStatistics catalogStatistics;
+    private final DownloadLeaderboard leaderboard;
+    private final AuthorLifespanIndex lifespanIndex;
+    private final EntityCacheStatistics cacheStatistics;
+    private final CatalogAnalytics analytics;
+    private final CatalogArchiveService archiveService;
+    private final DownloadRefreshService refreshService;
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_RESULTS = 5;
 
-    public Principal(BookRepository bookRepository, AuthorRepository authorRepository) {
+    public Principal(BookRepository bookRepository, AuthorRepository authorRepository,
+                     CatalogIngestionService ingestionService, BookRegistrationService registrationService,
+                     CatalogSearchService searchService, CatalogStatistics catalogStatistics,
+                     DownloadLeaderboard leaderboard, AuthorLifespanIndex lifespanIndex,
+                     EntityCacheStatistics cacheStatistics, CatalogAnalytics analytics,
+                     CatalogArchiveService archiveService, DownloadRefreshService refreshService) {
+        this.refreshService = refreshService;
+        this.archiveService = archiveService;
+        this.analytics = analytics;
+        this.cacheStatistics = cacheStatistics;
+        this.lifespanIndex = lifespanIndex;
+        this.leaderboard = leaderboard;
+        this.searchService = searchService;
+        this.catalogStatistics = catalogStatistics;
+        this.registrationService = registrationService;
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
+        this.ingestionService = ingestionService;
     }
 
     public void displayMenu() {
@@ -43,8 +89,12 @@ public class Principal {
                     4 - Listar autores vivos em um determinado ano
                     5 - Listar livros em um determinado idioma
                     6 - Gerar estatísticas do banco de dados
-                    7 - Listar Top 10 livros mais baixados
+                    7 - Listar livros mais baixados
                     8 - Buscar autor por nome
+                    9 - Importar catálogo completo da Gutendex
+                    10 - Exportar catálogo para arquivo
+                    11 - Importar catálogo de arquivo
+                    12 - Atualizar contagens de downloads
                     
                     0 - Sair
                     """;
@@ -67,8 +117,12 @@ public class Principal {
                 case 4: listAuthorsAliveInYear(); break;
                 case 5: listBooksByLanguage(); break;
                 case 6: showDatabaseStatistics(); break;
-                case 7: listTop10Books(); break;
+                case 7: listTopBooks(); break;
                 case 8: findAuthorByName(); break;
+                case 9: importFullCatalog(); break;
+                case 10: exportCatalogArchive(); break;
+                case 11: importCatalogArchive(); break;
+                case 12: refreshDownloadCounts(); break;
                 case 0: System.out.println("Saindo do LiterAlura. Até a próxima!"); break;
                 default: System.out.println("Opção inválida. Tente novamente.");
             }
@@ -78,84 +132,90 @@ public class Principal {
     private void searchBookByTitle() {
         System.out.println("Digite o título do livro que deseja buscar:");
         var bookTitle = scanner.nextLine();
-        var searchUrl = API_BASE_URL + "?search=" + bookTitle.replace(" ", "%20");
         System.out.println("Buscando na API...");
-        String jsonResponse = consumer.fetchData(searchUrl);
-        ApiResponseDTO apiResponse = converter.getData(jsonResponse, ApiResponseDTO.class);
-
-        if (apiResponse != null && !apiResponse.results().isEmpty()) {
-            BookDTO foundBookDTO = apiResponse.results().getFirst();
-            saveBook(foundBookDTO);
-        } else {
-            System.out.println("Nenhum livro encontrado com o título '" + bookTitle + "'.");
-        }
-    }
-
-    private void saveBook(BookDTO bookDTO) {
-        Optional<Book> existingBook = bookRepository.findByTitleContainingIgnoreCase(bookDTO.title());
-        if (existingBook.isPresent()) {
-            System.out.println("Este livro já está cadastrado no banco de dados.");
-        } else if (bookDTO.authors().isEmpty()) {
-            System.out.println("Não foi possível salvar o livro pois não possui autor.");
-        } else {
-            Author author;
-            AuthorDTO authorDTO = bookDTO.authors().getFirst();
-            Optional<Author> existingAuthor = authorRepository.findByNameContainingIgnoreCase(authorDTO.name());
-
-            if (existingAuthor.isPresent()) {
-                author = existingAuthor.get();
-            } else {
-                author = new Author(authorDTO.name(), authorDTO.birthYear(), authorDTO.deathYear());
-                authorRepository.save(author);
+        BookRegistrationService.Registration registration = registrationService.searchAndRegister(bookTitle);
+        switch (registration.status()) {
+            case SAVED -> {
+                BookSummaryDTO book = registration.book();
+                System.out.println("\n--- Livro salvo com sucesso! ---\n" + " Título: " + book.title() + "\n" + " Autor: " + book.authorName() + "\n" + " Idioma: " + book.language() + "\n" + " Downloads: " + book.downloadCount() + "\n--------------------------------\n");
             }
-            Book book = new Book(bookDTO.title(), bookDTO.languages().getFirst(), bookDTO.downloadCount(), author);
-            bookRepository.save(book);
-            System.out.println("\n--- Livro salvo com sucesso! ---\n" + book + "\n--------------------------------\n");
+            case ALREADY_REGISTERED -> System.out.println("Este livro já está cadastrado no banco de dados.");
+            case NO_AUTHOR -> System.out.println("Não foi possível salvar o livro pois não possui autor.");
+            case NOT_FOUND -> System.out.println("Nenhum livro encontrado com o título '" + bookTitle + "'.");
         }
     }
 
     private void listRegisteredBooks() {
-        List<Book> books = bookRepository.findAll();
-        if (books.isEmpty()) {
+        long printed = forEachPage(afterId -> bookRepository.findSummariesAfter(afterId, Limit.of(PAGE_SIZE)), BookSummaryDTO::id,
+                "\n--- Livros Registrados ---",
+                b -> System.out.println(
+                        "--------------------------\n" + " Título: " + b.title() + "\n" + " Autor: " + b.authorName() + "\n" + " Idioma: " + b.language() + "\n" + " Downloads: " + b.downloadCount() + "\n" + "--------------------------\n"
+                ));
+        if (printed == 0) {
             System.out.println("\nNenhum livro cadastrado no banco de dados.\n");
-        } else {
-            System.out.println("\n--- Livros Registrados ---");
-            books.forEach(b -> System.out.println(
-                    "--------------------------\n" + " Título: " + b.getTitle() + "\n" + " Autor: " + b.getAuthor().getName() + "\n" + " Idioma: " + b.getLanguage() + "\n" + " Downloads: " + b.getDownloadCount() + "\n" + "--------------------------\n"
-            ));
         }
     }
 
     private void listRegisteredAuthors() {
-        List<Author> authors = authorRepository.findAll();
-        if (authors.isEmpty()) {
+        // Each page costs two queries: the page of authors, then their books in one fetch join.
+        long printed = forEachPage(afterId -> {
+                    List<Long> ids = authorRepository.findPageAfter(afterId, Limit.of(PAGE_SIZE)).stream().map(Author::getId).toList();
+                    return ids.isEmpty() ? List.<Author>of() : authorRepository.findWithBooksByIdIn(ids);
+                }, Author::getId,
+                "\n--- Autores Registrados ---",
+                a -> {
+                    List<String> bookTitles = a.getBooks().stream().map(Book::getTitle).toList();
+                    System.out.println(
+                            "---------------------------\n" + "Autor: " + a.getName() + "\n" + "Ano de Nascimento: " + a.getBirthYear() + "\n" + "Ano de Falecimento: " + a.getDeathYear() + "\n" + "Livros: " + bookTitles + "\n" + "---------------------------\n"
+                    );
+                });
+        if (printed == 0) {
             System.out.println("\nNenhum autor cadastrado no banco de dados.\n");
-        } else {
-            System.out.println("\n--- Autores Registrados ---");
-            authors.forEach(a -> {
-                List<String> bookTitles = a.getBooks().stream().map(Book::getTitle).toList();
-                System.out.println(
-                        "---------------------------\n" + "Autor: " + a.getName() + "\n" + "Ano de Nascimento: " + a.getBirthYear() + "\n" + "Ano de Falecimento: " + a.getDeathYear() + "\n" + "Livros: " + bookTitles + "\n" + "---------------------------\n"
-                );
-            });
         }
     }
 
     private void listAuthorsAliveInYear() {
         System.out.println("\nDigite o ano para pesquisar os autores vivos:");
-        var year = scanner.nextInt();
-        scanner.nextLine();
-        List<Author> authors = authorRepository.findAuthorsAliveInYear(year);
-        if (authors.isEmpty()) {
-            System.out.println("\nNenhum autor vivo encontrado para o ano de " + year + ".\n");
-        } else {
-            System.out.println("\n--- Autores Vivos em " + year + " ---");
-            authors.forEach(a -> System.out.println(
-                    "---------------------------\n" + "Autor: " + a.getName() + "\n" + "Ano de Nascimento: " + a.getBirthYear() + "\n" + "Ano de Falecimento: " + a.getDeathYear() + "\n" + "---------------------------\n"
-            ));
+        int year;
+        int toYear;
+        try {
+            year = Integer.parseInt(scanner.nextLine().trim());
+            System.out.println("Digite o ano final para pesquisar um intervalo (ou Enter para apenas " + year + "):");
+            var input = scanner.nextLine().trim();
+            toYear = input.isEmpty() ? year : Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            System.out.println("Erro: Por favor, digite um número inteiro válido.");
+            return;
+        }
+        if (toYear < year) {
+            System.out.println("O ano final deve ser maior ou igual ao ano inicial.");
+            return;
+        }
+        String period = toYear == year ? String.valueOf(year) : year + " e " + toYear;
+        // Interval index: only the matching ids come back, then each page is loaded by id.
+        long[] ids = lifespanIndex.aliveBetween(year, toYear);
+        long printed = forEachPage(afterId -> {
+                    List<Long> page = idsAfter(ids, afterId);
+                    return page.isEmpty() ? List.of() : authorRepository.findByIdInOrderById(page);
+                }, Author::getId,
+                "\n--- Autores Vivos em " + period + " ---",
+                a -> System.out.println(
+                        "---------------------------\n" + "Autor: " + a.getName() + "\n" + "Ano de Nascimento: " + a.getBirthYear() + "\n" + "Ano de Falecimento: " + (a.getDeathYear() != null ? a.getDeathYear() : "desconhecido") + "\n" + "---------------------------\n"
+                ));
+        if (printed == 0) {
+            System.out.println("\nNenhum autor vivo encontrado para " + (toYear == year ? "o ano de " : "os anos entre ") + period + ".\n");
         }
     }
 
+    /**
+     * Returns the next page of ids from a sorted array: up to PAGE_SIZE ids greater than afterId.
+     */
+    private static List<Long> idsAfter(long[] sortedIds, long afterId) {
+        int from = Arrays.binarySearch(sortedIds, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return Arrays.stream(sortedIds, from, Math.min(sortedIds.length, from + PAGE_SIZE)).boxed().toList();
+    }
+
     private void listBooksByLanguage() {
         System.out.println("""
                 Digite o idioma para a busca:
@@ -163,43 +223,106 @@ public class Principal {
                 en - inglês
                 fr - francês
                 pt - português
+                Para vários idiomas, separe-os por vírgula (en,fr: livros em qualquer um deles)
+                ou por + (en+fr: livros em todos eles).
                 """);
-        var language = scanner.nextLine();
-        List<Book> books = bookRepository.findByLanguage(language);
-        if (books.isEmpty()) {
+        var language = scanner.nextLine().trim();
+        boolean all = language.contains("+");
+        List<String> languages = SearchKeys.languageCodes(Arrays.asList(language.split("[,+]")));
+        if (languages.isEmpty()) {
+            System.out.println("Nenhum idioma informado.\n");
+            return;
+        }
+        long printed = forEachPage(afterId -> all
+                        ? bookRepository.findSummariesByAllLanguagesAfter(languages, languages.size(), afterId, Limit.of(PAGE_SIZE))
+                        : bookRepository.findSummariesByAnyLanguageAfter(languages, afterId, Limit.of(PAGE_SIZE)), BookSummaryDTO::id,
+                "\n--- Livros em '" + language + "' ---",
+                b -> System.out.println(
+                        "--------------------------\n" + " Título: " + b.title() + "\n" + " Autor: " + b.authorName() + "\n" + "--------------------------\n"
+                ));
+        if (printed == 0) {
             System.out.println("\nNenhum livro encontrado para o idioma '" + language + "'.\n");
-        } else {
-            System.out.println("\n--- Livros em '" + language + "' ---");
-            books.forEach(b -> System.out.println(
-                    "--------------------------\n" + " Título: " + b.getTitle() + "\n" + " Autor: " + b.getAuthor().getName() + "\n" + "--------------------------\n"
-            ));
         }
     }
 
+    /**
+     * Walks a listing page by page (keyset pagination), printing each page as soon as it
+     * arrives, so memory use does not grow with the size of the catalog.
+     *
+     * @return The number of printed rows.
+     */
+    private <T> long forEachPage(LongFunction<List<T>> pageAfter, ToLongFunction<T> idOf, String header, Consumer<T> printer) {
+        long printed = 0;
+        long lastId = 0;
+        List<T> page;
+        do {
+            page = pageAfter.apply(lastId);
+            if (printed == 0 && !page.isEmpty()) {
+                System.out.println(header);
+            }
+            page.forEach(printer);
+            printed += page.size();
+            if (!page.isEmpty()) {
+                lastId = idOf.applyAsLong(page.getLast());
+            }
+        } while (page.size() == PAGE_SIZE);
+        return printed;
+    }
+
     private void showDatabaseStatistics() {
-        long bookCount = bookRepository.count();
-        long authorCount = authorRepository.count();
-        Double averageDownloads = bookRepository.getAverageDownloadCount();
-        Optional<Book> mostDownloadedBook = bookRepository.findTopByOrderByDownloadCountDesc();
-        Optional<Book> leastDownloadedBook = bookRepository.findTopByOrderByDownloadCountAsc();
+        // Precomputed aggregate: no query is executed here.
+        CatalogStatistics.Snapshot statistics = catalogStatistics.snapshot();
         System.out.println("\n--- Estatísticas do Banco de Dados ---");
         System.out.println("--------------------------------------");
-        System.out.println("Total de livros registrados: " + bookCount);
-        System.out.println("Total de autores registrados: " + authorCount);
-        System.out.printf("Média de downloads por livro: %.2f\n", averageDownloads != null ? averageDownloads : 0.0);
-        mostDownloadedBook.ifPresent(book -> System.out.println("Livro com mais downloads: '" + book.getTitle() + "' (" + book.getDownloadCount() + " downloads)"));
-        leastDownloadedBook.ifPresent(book -> System.out.println("Livro com menos downloads: '" + book.getTitle() + "' (" + book.getDownloadCount() + " downloads)"));
+        System.out.println("Total de livros registrados: " + statistics.bookCount());
+        System.out.println("Total de autores registrados: " + statistics.authorCount());
+        System.out.printf("Média de downloads por livro: %.2f\n", statistics.averageDownloads() != null ? statistics.averageDownloads() : 0.0);
+        if (statistics.mostDownloaded() != null) {
+            System.out.println("Livro com mais downloads: '" + statistics.mostDownloaded().title() + "' (" + statistics.mostDownloaded().downloadCount() + " downloads)");
+        }
+        if (statistics.leastDownloaded() != null) {
+            System.out.println("Livro com menos downloads: '" + statistics.leastDownloaded().title() + "' (" + statistics.leastDownloaded().downloadCount() + " downloads)");
+        }
+        System.out.println("Livros por idioma: " + statistics.booksByLanguage());
+        System.out.println("Distribuição de downloads: " + Arrays.toString(statistics.histogram())
+                + " (faixas: <10, <100, <1.000, <10.000, <100.000, 100.000+)");
+        System.out.println("Downloads por idioma (mediana / p90 / p99):");
+        analytics.byLanguage().forEach((language, summary) -> {
+            if (summary.withDownloads() > 0) {
+                System.out.printf("  %s: %.0f / %.0f / %.0f (%d livros)\n", language,
+                        summary.medianDownloads(), summary.p90Downloads(), summary.p99Downloads(), summary.books());
+            }
+        });
+        EntityCacheStatistics.Report cache = cacheStatistics.report();
+        System.out.printf("Cache de entidades: %.1f%% de acertos (%d acertos, %d falhas)\n",
+                cache.entities().hitRatio() * 100, cache.entities().hits(), cache.entities().misses());
+        System.out.printf("Cache de consultas: %.1f%% de acertos (%d acertos, %d falhas)\n",
+                cache.queries().hitRatio() * 100, cache.queries().hits(), cache.queries().misses());
         System.out.println("--------------------------------------\n");
     }
 
-    private void listTop10Books() {
-        List<Book> topBooks = bookRepository.findTop10ByOrderByDownloadCountDesc();
+    private void listTopBooks() {
+        System.out.println("\nQuantos livros deseja listar? (1 a " + leaderboard.capacity() + ", Enter para 10)");
+        int n = 10;
+        String input = scanner.nextLine().trim();
+        if (!input.isEmpty()) {
+            try {
+                n = Math.clamp(Integer.parseInt(input), 1, leaderboard.capacity());
+            } catch (NumberFormatException e) {
+                System.out.println("Erro: Por favor, digite um número inteiro válido.");
+                return;
+            }
+        }
+        System.out.println("Filtrar por idioma? Digite o código (ex: pt, en) ou Enter para todos:");
+        String language = scanner.nextLine().trim().toLowerCase(Locale.ROOT);
+
+        List<RankedBookDTO> topBooks = language.isEmpty() ? leaderboard.top(n) : leaderboard.topByLanguage(language, n);
         if (topBooks.isEmpty()) {
-            System.out.println("\nNão há livros suficientes no banco para gerar um Top 10.\n");
+            System.out.println("\nNão há livros no banco para gerar o ranking.\n");
         } else {
-            System.out.println("\n--- Top 10 Livros Mais Baixados ---");
+            System.out.println("\n--- Top " + topBooks.size() + " Livros Mais Baixados" + (language.isEmpty() ? "" : " (" + language + ")") + " ---");
             topBooks.forEach(b -> System.out.println(
-                    "--------------------------\n" + " Título: " + b.getTitle() + "\n" + " Autor: " + b.getAuthor().getName() + "\n" + " Downloads: " + b.getDownloadCount() + "\n" + "--------------------------\n"
+                    "--------------------------\n" + " Título: " + b.title() + "\n" + " Autor: " + b.authorName() + "\n" + " Downloads: " + b.downloadCount() + "\n" + "--------------------------\n"
             ));
         }
     }
@@ -207,19 +330,86 @@ public class Principal {
     private void findAuthorByName() {
         System.out.println("\nDigite o nome do autor que deseja buscar:");
         var authorName = scanner.nextLine();
-        Optional<Author> author = authorRepository.findByNameContainingIgnoreCase(authorName);
-        if (author.isPresent()) {
-            Author foundAuthor = author.get();
-            System.out.println("\n--- Autor Encontrado ---");
-            System.out.println("---------------------------");
-            System.out.println("Autor: " + foundAuthor.getName());
-            System.out.println("Ano de Nascimento: " + foundAuthor.getBirthYear());
-            System.out.println("Ano de Falecimento: " + foundAuthor.getDeathYear());
-            List<String> bookTitles = foundAuthor.getBooks().stream().map(Book::getTitle).toList();
-            System.out.println("Livros: " + bookTitles);
-            System.out.println("---------------------------\n");
-        } else {
+        List<Author> authors = searchService.searchAuthors(authorName, SEARCH_RESULTS);
+        if (authors.isEmpty()) {
             System.out.println("\nNenhum autor encontrado com o nome '" + authorName + "'.\n");
+        } else {
+            System.out.println(authors.size() == 1 ? "\n--- Autor Encontrado ---" : "\n--- Autores Encontrados ---");
+            authors.forEach(foundAuthor -> {
+                System.out.println("---------------------------");
+                System.out.println("Autor: " + foundAuthor.getName());
+                System.out.println("Ano de Nascimento: " + foundAuthor.getBirthYear());
+                System.out.println("Ano de Falecimento: " + foundAuthor.getDeathYear());
+                List<String> bookTitles = foundAuthor.getBooks().stream().map(Book::getTitle).toList();
+                System.out.println("Livros: " + bookTitles);
+                System.out.println("---------------------------\n");
+            });
+        }
+    }
+
+    private void importFullCatalog() {
+        System.out.println("\nImportando o catálogo completo da Gutendex (pode levar vários minutos)...");
+        CatalogIngestionService.Report report;
+        try {
+            report = ingestionService.ingestCatalog();
+        } catch (OperationAlreadyRunningException e) {
+            System.out.println("Já existe uma importação em andamento. Tente novamente mais tarde.\n");
+            return;
+        }
+        System.out.println("\n--- Importação Concluída ---");
+        System.out.println("Páginas importadas: " + report.pages());
+        System.out.println("Livros novos salvos: " + report.booksSaved());
+        System.out.printf("Tempo total: %.1f s (%.1f livros/s)\n", report.elapsed().toMillis() / 1000.0, report.rowsPerSecond());
+        System.out.println("----------------------------\n");
+    }
+
+    private void exportCatalogArchive() {
+        System.out.println("Digite o caminho do arquivo de exportação (ex.: catalogo.ltra):");
+        Path file = Path.of(scanner.nextLine().trim());
+        System.out.println("Compactar o arquivo? (s/N)");
+        boolean compress = scanner.nextLine().trim().equalsIgnoreCase("s");
+        CatalogArchiveService.ExportReport report;
+        try {
+            report = archiveService.export(file, compress);
+        } catch (UncheckedIOException e) {
+            System.out.println("Não foi possível gravar o arquivo: " + e.getCause().getMessage() + "\n");
+            return;
+        }
+        System.out.printf("Catálogo exportado: %d livros e %d autores em %s (%d bytes, %.1f s)\n\n",
+                report.books(), report.authors(), file, report.bytes(), report.elapsed().toMillis() / 1000.0);
+    }
+
+    private void importCatalogArchive() {
+        System.out.println("Digite o caminho do arquivo a importar:");
+        Path file = Path.of(scanner.nextLine().trim());
+        CatalogArchiveService.ImportReport report;
+        try {
+            report = archiveService.importArchive(file);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Arquivo inválido: " + e.getMessage() + "\n");
+            return;
+        } catch (UncheckedIOException e) {
+            System.out.println("Não foi possível ler o arquivo: " + e.getCause().getMessage() + "\n");
+            return;
+        }
+        System.out.printf("Arquivo importado: %d livros lidos, %d livros e %d autores novos (%.1f s)\n\n",
+                report.booksRead(), report.booksInserted(), report.authorsInserted(), report.elapsed().toMillis() / 1000.0);
+    }
+
+    private void refreshDownloadCounts() {
+        System.out.println("\nAtualizando as contagens de downloads com a Gutendex...");
+        DownloadRefreshService.Report report;
+        try {
+            report = refreshService.refresh();
+        } catch (OperationAlreadyRunningException e) {
+            System.out.println("Já existe uma atualização em andamento. Tente novamente mais tarde.\n");
+            return;
         }
+        System.out.println("\n--- Atualização Concluída ---");
+        System.out.println("Livros verificados: " + report.checked());
+        System.out.println("Livros com downloads alterados: " + report.updated());
+        System.out.printf("Tempo total: %.1f s (%.1f verificados/s, %.1f alterados/s)\n", report.elapsed().toMillis() / 1000.0,
+                report.checkedPerSecond(), report.updatedPerSecond());
+        System.out.println("-----------------------------\n");
     }
 }
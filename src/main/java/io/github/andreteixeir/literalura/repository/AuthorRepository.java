@@ -1,31 +1,147 @@
 package io.github.andreteixeir.literalura.repository;
 
+import io.github.andreteixeir.literalura.dto.AuthorLifespanDTO;
 import io.github.andreteixeir.literalura.model.Author;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for Author entities.
  * Uses Spring Data JPA to provide CRUD operations and custom queries.
+ * The listing finders are cacheable: their results stay in the query cache until the next
+ * write to the authors or books tables.
  */
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     /**
-     * Finds an author by their name, ignoring case and allowing partial matches.
+     * Finds an author by the normalized form of their name (see SearchKeys), using its unique index.
+     *
+     * @param nameKey The normalized name.
+     * @return An Optional containing the found Author with its books, or an empty Optional if no match is found.
+     */
+    @EntityGraph(attributePaths = "books")
+    Optional<Author> findByNameKey(String nameKey);
+
+    /**
+     * Finds all authors whose normalized name is one of the given keys.
+     * Used by the bulk import to resolve a whole page of authors in a single query.
+     *
+     * @param nameKeys The normalized author names to look up.
+     * @return The authors that are already registered.
+     */
+    List<Author> findByNameKeyIn(Collection<String> nameKeys);
+
+    /**
+     * Finds authors saved before the name_key column existed, so their keys can be filled in.
+     *
+     * @param limit The maximum number of authors to return.
+     * @return Authors without a normalized name.
+     */
+    List<Author> findByNameKeyIsNullAndNameIsNotNull(Limit limit);
+
+    /**
+     * Keyset page of authors: the authors with an id greater than the given one, in id order.
+     *
+     * @param afterId The last id of the previous page (0 for the first page).
+     * @param limit   The page size.
+     * @return The next page of authors.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT a FROM Author a WHERE a.id > :afterId ORDER BY a.id")
+    List<Author> findPageAfter(Long afterId, Limit limit);
+
+    /**
+     * Page of authors in id order, without counting the total.
+     *
+     * @param pageable The page to load.
+     * @return A slice of authors.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    Slice<Author> findSlice(Pageable pageable);
+
+    /**
+     * Loads the given authors together with their books in a single query.
+     * Combined with {@link #findPageAfter}, a page of the author listing costs two queries
+     * regardless of its size (a fetch join cannot be limited in SQL).
      *
-     * @param name The name of the author to search for.
-     * @return An Optional containing the found Author, or an empty Optional if no match is found.
+     * @param ids The ids of the authors to load.
+     * @return The authors ordered by id, with their books initialized.
      */
-    Optional<Author> findByNameContainingIgnoreCase(String name);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT a FROM Author a LEFT JOIN FETCH a.books WHERE a.id IN :ids ORDER BY a.id")
+    List<Author> findWithBooksByIdIn(Collection<Long> ids);
+
+    /**
+     * Streams every author through a JDBC cursor instead of loading the whole table.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A stream of all authors in id order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    Stream<Author> streamAll();
+
+    /**
+     * Streams only the birth and death years of every author, to build the in-memory lifespan index.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return A stream of the lifespans of all authors.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.AuthorLifespanDTO(a.id, a.birthYear, a.deathYear) FROM Author a")
+    Stream<AuthorLifespanDTO> streamLifespans();
+
+    /**
+     * Loads the given authors, without their books.
+     *
+     * @param ids The ids of the authors to load.
+     * @return The authors ordered by id.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Author> findByIdInOrderById(Collection<Long> ids);
 
     /**
      * Custom query to find authors who were alive in a given year.
+     * Authors without a death year are not returned; AuthorLifespanIndex answers the complete lookup.
      *
      * @param year The year to check.
      * @return A list of authors who were alive during the specified year.
      */
     @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND a.deathYear >= :year")
     List<Author> findAuthorsAliveInYear(Integer year);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of the authors who were alive in a given year.
+     *
+     * @param year    The year to check.
+     * @param afterId The last id of the previous page (0 for the first page).
+     * @param limit   The page size.
+     * @return The next page of authors alive in the year, in id order.
+     */
+    @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND a.deathYear >= :year AND a.id > :afterId ORDER BY a.id")
+    List<Author> findAuthorsAliveInYearAfter(Integer year, Long afterId, Limit limit);
+
+    /**
+     * Page of the authors who were alive in a given year, without counting the total.
+     *
+     * @param year     The year to check.
+     * @param pageable The requested page.
+     * @return A slice of authors alive in the year.
+     */
+    @Query("SELECT a FROM Author a WHERE a.birthYear <= :year AND a.deathYear >= :year ORDER BY a.id")
+    Slice<Author> findAuthorsAliveInYear(Integer year, Pageable pageable);
+}
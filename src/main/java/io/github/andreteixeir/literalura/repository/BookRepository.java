@@ -1,20 +1,154 @@
 package io.github.andreteixeir.literalura.repository;
 
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.LanguageCountDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
 import io.github.andreteixeir.literalura.model.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
-    Optional<Book> findByTitleContainingIgnoreCase(String title);
+    // Verificação de duplicidade pelo id do Gutendex (índice único em gutendex_id)
+    boolean existsByGutendexId(Integer gutendexId);
+    // Busca pela chave normalizada do título (índice em title_key; edições podem repetir o título)
+    boolean existsByTitleKey(String titleKey);
+    // Livros que listam o idioma, mesmo que não seja o primeiro (índice em book_languages)
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT b FROM Book b JOIN b.languages l WHERE l = :language")
     List<Book> findByLanguage(String language);
+    // Apenas pelo primeiro idioma (coluna books.language), como era feito antes de book_languages
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT b FROM Book b WHERE b.language = :language")
+    List<Book> findByPrimaryLanguage(String language);
     Optional<Book> findTopByOrderByDownloadCountDesc();
     Optional<Book> findTopByOrderByDownloadCountAsc();
+    // Livro mais e menos baixado (empates: o de menor id), recalculados quando a contagem muda
+    Optional<Book> findFirstByDownloadCountNotNullOrderByDownloadCountDescIdAsc();
+    Optional<Book> findFirstByDownloadCountNotNullOrderByDownloadCountAscIdAsc();
     @Query("SELECT AVG(b.downloadCount) FROM Book b")
     Double getAverageDownloadCount();
+    @Query("SELECT MAX(b.downloadCount) FROM Book b")
+    Double getMaxDownloadCount();
+    @Query("SELECT MIN(b.downloadCount) FROM Book b")
+    Double getMinDownloadCount();
+
+    // Contagem por idioma: um livro conta em cada idioma que lista, e os livros sem idioma aparecem
+    // com idioma nulo. Lida só dos índices (book_languages e books.language), sem percorrer os livros.
+    @Query(value = """
+            SELECT language, COUNT(*) FROM book_languages GROUP BY language
+            UNION ALL
+            SELECT NULL, COUNT(*) FROM books WHERE language IS NULL HAVING COUNT(*) > 0
+            """, nativeQuery = true)
+    List<LanguageCountDTO> countByLanguage();
 
     // *** NOVO MÉTODO PARA O TOP 10 ***
+    @EntityGraph(attributePaths = "author")
     List<Book> findTop10ByOrderByDownloadCountDesc();
-}
\ No newline at end of file
+
+    // Ids do Gutendex já cadastrados entre os informados (uma única consulta por página importada)
+    @Query("SELECT b.gutendexId FROM Book b WHERE b.gutendexId IN :gutendexIds")
+    List<Integer> findExistingGutendexIds(Collection<Integer> gutendexIds);
+
+    // Livros gravados antes da coluna title_key existir (preenchidos na inicialização)
+    List<Book> findByTitleKeyIsNullAndTitleIsNotNull(Limit limit);
+
+    // Projeções para as listagens: uma única consulta com join, apenas as colunas exibidas.
+    // Paginação por chave (keyset): cada página começa após o último id lido, sem OFFSET.
+    // Os resultados ficam no cache de consultas até a próxima gravação em books/authors.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.id > :afterId ORDER BY b.id")
+    List<BookSummaryDTO> findSummariesAfter(Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a JOIN b.languages l WHERE l = :language AND b.id > :afterId ORDER BY b.id")
+    List<BookSummaryDTO> findSummariesByLanguageAfter(String language, Long afterId, Limit limit);
+
+    // Livros em pelo menos um dos idiomas informados
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.id > :afterId " +
+            "AND b.id IN (SELECT lb.id FROM Book lb JOIN lb.languages l WHERE l IN :languages) ORDER BY b.id")
+    List<BookSummaryDTO> findSummariesByAnyLanguageAfter(Collection<String> languages, Long afterId, Limit limit);
+
+    // Livros em todos os idiomas informados (languageCount = quantidade de idiomas distintos informados)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.id > :afterId " +
+            "AND b.id IN (SELECT lb.id FROM Book lb JOIN lb.languages l WHERE l IN :languages GROUP BY lb.id HAVING COUNT(l) = :languageCount) " +
+            "ORDER BY b.id")
+    List<BookSummaryDTO> findSummariesByAllLanguagesAfter(Collection<String> languages, long languageCount, Long afterId, Limit limit);
+
+    // Paginação por número de página (Slice não executa COUNT)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a ORDER BY b.id")
+    Slice<BookSummaryDTO> findSummaries(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.id IN (SELECT lb.id FROM Book lb JOIN lb.languages l WHERE l IN :languages) ORDER BY b.id")
+    Slice<BookSummaryDTO> findSummariesByAnyLanguage(Collection<String> languages, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.id IN " +
+            "(SELECT lb.id FROM Book lb JOIN lb.languages l WHERE l IN :languages GROUP BY lb.id HAVING COUNT(l) = :languageCount) ORDER BY b.id")
+    Slice<BookSummaryDTO> findSummariesByAllLanguages(Collection<String> languages, long languageCount, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.BookSummaryDTO(b.id, b.title, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a ORDER BY b.downloadCount DESC LIMIT 10")
+    List<BookSummaryDTO> findTop10Summaries();
+
+    // Leitura em fluxo com cursor JDBC (fetch size); deve ser consumida dentro de uma transação
+    // e fechada ao final (try-with-resources).
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Book b JOIN b.languages l WHERE l = :language ORDER BY b.id")
+    Stream<Book> streamByLanguage(String language);
+
+    // Livros com contagem de downloads e o autor já resolvido, para montar os rankings em memória
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.RankedBookDTO(b.id, b.title, a.id, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.downloadCount IS NOT NULL")
+    Stream<RankedBookDTO> streamRanked();
+
+    // Os mais baixados no geral, por idioma e por autor, para completar um ranking em memória
+    // quando um dos seus livros perde downloads
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.RankedBookDTO(b.id, b.title, a.id, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.downloadCount IS NOT NULL ORDER BY b.downloadCount DESC, b.id")
+    List<RankedBookDTO> findRanked(Limit limit);
+
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.RankedBookDTO(b.id, b.title, a.id, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.downloadCount IS NOT NULL AND b.language = :language ORDER BY b.downloadCount DESC, b.id")
+    List<RankedBookDTO> findRankedByLanguage(String language, Limit limit);
+
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.RankedBookDTO(b.id, b.title, a.id, a.name, b.language, b.downloadCount) " +
+            "FROM Book b JOIN b.author a WHERE b.downloadCount IS NOT NULL AND a.id = :authorId ORDER BY b.downloadCount DESC, b.id")
+    List<RankedBookDTO> findRankedByAuthor(Long authorId, Limit limit);
+
+    // Todos os livros, inclusive sem autor ou sem downloads, para o snapshot colunar e as estatísticas em memória
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new io.github.andreteixeir.literalura.dto.RankedBookDTO(b.id, b.title, a.id, a.name, b.language, b.downloadCount) " +
+            "FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    Stream<RankedBookDTO> streamCatalog();
+}
@@ -0,0 +1,10 @@
+package io.github.andreteixeir.literalura.repository;
+
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for IngestionCheckpoint entities, keyed by the import name.
+ */
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, String> {
+}
@@ -1,49 +1,245 @@
 package io.github.andreteixeir.literalura.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class responsible for consuming an external API.
- * This class provides a method to fetch data from a given URL.
+ * A single instance is shared by the whole application, so every request reuses the
+ * same HTTP/2 client and its pooled connections instead of paying a new TCP/TLS handshake.
  */
-public class ApiConsumer {
+@Component
+public class ApiConsumer implements AutoCloseable {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final int maxConcurrency;
+    private final MeterRegistry meterRegistry;
+
+    public ApiConsumer(@Value("${literalura.http.connect-timeout}") Duration connectTimeout,
+                       @Value("${literalura.http.request-timeout}") Duration requestTimeout,
+                       @Value("${literalura.http.max-concurrency}") int maxConcurrency,
+                       MeterRegistry meterRegistry) {
+        // HTTP/2 is negotiated when the server supports it, falling back to HTTP/1.1 otherwise.
+        // Async completions run on virtual threads, so blocking callers never starve the pool.
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.maxConcurrency = maxConcurrency;
+        this.meterRegistry = meterRegistry;
+    }
 
     /**
      * Fetches data from the specified URL.
      *
      * @param url The URL of the API endpoint to fetch data from.
      * @return A String containing the body of the HTTP response, typically a JSON.
+     * @throws RuntimeException If the request fails or the server answers with a non-2xx status.
      */
     public String fetchData(String url) {
-        // Create a new HttpClient with default settings.
-        HttpClient client = HttpClient.newHttpClient();
+        // The response body is handled as a String.
+        return send(url, HttpResponse.BodyHandlers.ofString());
+    }
 
-        // Build a new HttpRequest for the given URL.
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .build();
+    /**
+     * Fetches data from the specified URL as a stream, so it can be parsed while it arrives
+     * instead of being copied into a String first. The caller must close the stream.
+     *
+     * @param url The URL of the API endpoint to fetch data from.
+     * @return An InputStream over the body of the HTTP response.
+     * @throws RuntimeException If the request fails or the server answers with a non-2xx status.
+     */
+    public InputStream fetchStream(String url) {
+        return send(url, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Sends a request with extra headers (e.g. conditional If-None-Match / If-Modified-Since)
+     * and returns the full response, so callers can inspect the status and response headers.
+     *
+     * @param url     The URL of the API endpoint to fetch data from.
+     * @param headers Additional request headers.
+     * @return The HTTP response with its body as raw bytes.
+     */
+    public HttpResponse<byte[]> fetchResponse(String url, Map<String, String> headers) {
+        HttpRequest.Builder builder = requestBuilder(url);
+        headers.forEach(builder::header);
+        return send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Fetches data from the specified URL without blocking the calling thread.
+     *
+     * @param url The URL of the API endpoint to fetch data from.
+     * @return A future completed with the body of the HTTP response, or exceptionally on I/O errors
+     *         and non-2xx statuses.
+     */
+    public CompletableFuture<String> fetchDataAsync(String url) {
+        long start = System.nanoTime();
+        return client.sendAsync(requestBuilder(url).build(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, e) -> {
+                    record(start, response, e);
+                    if (e != null) {
+                        System.err.println("Error during async HTTP request: " + e.getMessage());
+                    }
+                })
+                .thenApply(response -> requireSuccess(url, response).body());
+    }
 
-        HttpResponse<String> response = null;
+    /**
+     * Fetches several URLs concurrently, keeping at most {@code literalura.http.max-concurrency}
+     * requests in flight at the same time.
+     *
+     * @param urls The URLs to fetch (e.g. several pages or search terms).
+     * @return The response bodies, in the same order as the given URLs.
+     */
+    public List<String> fetchAll(List<String> urls) {
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        List<CompletableFuture<String>> futures = new ArrayList<>(urls.size());
+        try {
+            for (String url : urls) {
+                inFlight.acquire();
+                futures.add(fetchDataAsync(url).whenComplete((body, e) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            System.err.println("HTTP requests were interrupted: " + e.getMessage());
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new RuntimeException(e);
+        }
+
+        List<String> bodies = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                bodies.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return bodies;
+    }
+
+    private <T> T send(String url, HttpResponse.BodyHandler<T> bodyHandler) {
+        // Return the body of the response.
+        return requireSuccess(url, send(requestBuilder(url).build(), bodyHandler)).body();
+    }
+
+    /**
+     * Rejects responses without a 2xx status, so error pages never reach the JSON parser.
+     */
+    private static <T> HttpResponse<T> requireSuccess(String url, HttpResponse<T> response) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response;
+        }
+        if (response.body() instanceof InputStream body) {
+            try {
+                body.close(); // Releases the connection without reading the error page.
+            } catch (IOException ignored) {
+                // The request has failed anyway.
+            }
+        }
+        System.err.println("HTTP " + status + " from " + url);
+        throw new RuntimeException("HTTP " + status + " fetching " + url);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        long start = System.nanoTime();
         try {
             // Send the request and get the response.
-            // The response body is handled as a String.
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<T> response = client.send(request, bodyHandler);
+            record(start, response, null);
+            return response;
         } catch (IOException e) {
             // Handle exceptions related to I/O errors (e.g., network issues).
+            record(start, null, e);
             System.err.println("Error during HTTP request (I/O): " + e.getMessage());
             throw new RuntimeException(e);
         } catch (InterruptedException e) {
             // Handle exceptions if the operation is interrupted.
+            record(start, null, e);
             System.err.println("HTTP request was interrupted: " + e.getMessage());
             Thread.currentThread().interrupt(); // Restore the interrupted status
             throw new RuntimeException(e);
         }
+    }
 
-        // Return the body of the response.
-        return response.body();
+    /**
+     * Records the latency of a request by status and, when known, the size of its body.
+     * For streamed bodies the time covers the response headers only, and the size comes
+     * from the Content-Length header.
+     */
+    private void record(long startNanos, HttpResponse<?> response, Throwable error) {
+        String status = response != null ? String.valueOf(response.statusCode()) : "IO_ERROR";
+        Timer.builder("literalura.http.client.requests")
+                .description("Latency of requests to external APIs")
+                .tag("status", status)
+                .tag("outcome", outcome(response))
+                .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (response == null) {
+            return;
+        }
+        long bytes = response.body() instanceof byte[] body ? body.length
+                : response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        if (bytes >= 0) {
+            DistributionSummary.builder("literalura.http.client.response.size")
+                    .description("Size of the response bodies received from external APIs")
+                    .baseUnit("bytes")
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    private static String outcome(HttpResponse<?> response) {
+        if (response == null) {
+            return "UNKNOWN";
+        }
+        return switch (response.statusCode() / 100) {
+            case 1 -> "INFORMATIONAL";
+            case 2 -> "SUCCESS";
+            case 3 -> "REDIRECTION";
+            case 4 -> "CLIENT_ERROR";
+            case 5 -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+
+    private HttpRequest.Builder requestBuilder(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,230 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.dto.AuthorLifespanDTO;
+import io.github.andreteixeir.literalura.event.AuthorSavedEvent;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service class that answers "which authors were alive in a year (or a range of years)" from an
+ * in-memory interval tree over the authors' lifespans, instead of scanning the authors table.
+ * The tree is built at startup, or by the first query when the startup warm-up is off
+ * ({@link StartupWarmUp}).
+ * <p>
+ * Null semantics: an author without a birth year cannot be placed in time and is never returned.
+ * An author without a death year (still living, or unknown) is considered alive from the birth year
+ * up to {@code birthYear + literalura.authors.max-lifespan}, so an author born in 1500 with an
+ * unknown death is not reported as alive today.
+ */
+@Service
+public class AuthorLifespanIndex {
+    private final AuthorRepository authorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLifespan;
+
+    private volatile Tree tree = Tree.build(List.of());
+    // Saved authors are ignored until the tree is first built.
+    private volatile boolean loaded;
+    // Authors saved since the tree was built, merged on the next query. Guarded by "this".
+    private final List<Interval> pending = new ArrayList<>();
+
+    public AuthorLifespanIndex(AuthorRepository authorRepository, TransactionTemplate transactionTemplate,
+                               @Value("${literalura.authors.max-lifespan}") int maxLifespan) {
+        this.authorRepository = authorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLifespan = maxLifespan;
+    }
+
+    /**
+     * Rebuilds the tree from the database, reading only the id and years of each author.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Interval> intervals = new ArrayList<>();
+        try (Stream<AuthorLifespanDTO> lifespans = authorRepository.streamLifespans()) {
+            lifespans.forEach(a -> addInterval(intervals, a.authorId(), a.birthYear(), a.deathYear()));
+        }
+        synchronized (this) {
+            pending.clear();
+            tree = Tree.build(intervals);
+            loaded = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAuthorSaved(AuthorSavedEvent event) {
+        if (loaded) {
+            addInterval(pending, event.authorId(), event.birthYear(), event.deathYear());
+        }
+    }
+
+    /**
+     * Finds the authors alive in a given year.
+     *
+     * @param year The year to check.
+     * @return The ids of the matching authors, in ascending order.
+     */
+    public long[] aliveIn(int year) {
+        return aliveBetween(year, year);
+    }
+
+    /**
+     * Finds the authors alive at any point of a range of years.
+     *
+     * @param fromYear The first year of the range.
+     * @param toYear   The last year of the range (inclusive).
+     * @return The ids of the authors whose lifespan overlaps the range, in ascending order.
+     */
+    public long[] aliveBetween(int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("fromYear must not be after toYear: " + fromYear + " > " + toYear);
+        }
+        return current().overlapping(fromYear, toYear);
+    }
+
+    /**
+     * The number of authors with a known lifespan in the index.
+     */
+    public int size() {
+        return current().births.length;
+    }
+
+    private Tree current() {
+        synchronized (this) {
+            if (!loaded) {
+                transactionTemplate.executeWithoutResult(status -> rebuild());
+            }
+            if (!pending.isEmpty()) {
+                List<Interval> intervals = tree.intervals();
+                intervals.addAll(pending);
+                pending.clear();
+                tree = Tree.build(intervals);
+            }
+            return tree;
+        }
+    }
+
+    private void addInterval(List<Interval> intervals, Long id, Integer birthYear, Integer deathYear) {
+        if (id == null || birthYear == null) {
+            return;
+        }
+        intervals.add(new Interval(id, birthYear, lastYearAlive(birthYear, deathYear, maxLifespan)));
+    }
+
+    /**
+     * The last year an author counts as alive: the death year, or {@code maxLifespan} years after
+     * the birth when the death is unknown. Shared with {@link CatalogSnapshot}.
+     */
+    static int lastYearAlive(int birthYear, Integer deathYear, int maxLifespan) {
+        return deathYear != null ? deathYear : birthYear + maxLifespan;
+    }
+
+    private record Interval(long id, int start, int end) {}
+
+    /**
+     * Immutable interval tree stored in parallel arrays sorted by start year. The node of the
+     * range [lo, hi) is its middle element, and maxEnd holds the latest end year of that range,
+     * so a query skips every subtree that ends before the requested years: O(log n + k).
+     */
+    private static final class Tree {
+        final int[] births;
+        final int[] ends;
+        final long[] ids;
+        final int[] maxEnd;
+
+        private Tree(int[] births, int[] ends, long[] ids) {
+            this.births = births;
+            this.ends = ends;
+            this.ids = ids;
+            this.maxEnd = new int[births.length];
+            fillMaxEnd(0, births.length);
+        }
+
+        static Tree build(List<Interval> intervals) {
+            Interval[] sorted = intervals.toArray(Interval[]::new);
+            Arrays.sort(sorted, (a, b) -> Integer.compare(a.start(), b.start()));
+            int[] births = new int[sorted.length];
+            int[] ends = new int[sorted.length];
+            long[] ids = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                births[i] = sorted[i].start();
+                ends[i] = sorted[i].end();
+                ids[i] = sorted[i].id();
+            }
+            return new Tree(births, ends, ids);
+        }
+
+        List<Interval> intervals() {
+            List<Interval> intervals = new ArrayList<>(births.length + 16);
+            for (int i = 0; i < births.length; i++) {
+                intervals.add(new Interval(ids[i], births[i], ends[i]));
+            }
+            return intervals;
+        }
+
+        long[] overlapping(int from, int to) {
+            LongList found = new LongList();
+            collect(0, births.length, from, to, found);
+            long[] result = found.toArray();
+            Arrays.sort(result);
+            return result;
+        }
+
+        private int fillMaxEnd(int lo, int hi) {
+            if (lo >= hi) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            maxEnd[mid] = Math.max(ends[mid], Math.max(fillMaxEnd(lo, mid), fillMaxEnd(mid + 1, hi)));
+            return maxEnd[mid];
+        }
+
+        private void collect(int lo, int hi, int from, int to, LongList found) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < from) {
+                return; // Everyone in this range died before the requested years.
+            }
+            collect(lo, mid, from, to, found);
+            if (births[mid] > to) {
+                return; // This node and everything to its right was born after the range.
+            }
+            if (ends[mid] >= from) {
+                found.add(ids[mid]);
+            }
+            collect(mid + 1, hi, from, to, found);
+        }
+    }
+
+    /** Growable long array, to avoid boxing every id of a large result. */
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
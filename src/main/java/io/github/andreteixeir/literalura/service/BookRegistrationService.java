@@ -0,0 +1,76 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.ApiResponseDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Service class responsible for looking up a single book on Gutendex and registering it,
+ * shared by the console menu and the REST API.
+ */
+@Service
+public class BookRegistrationService {
+    private final ResponseCache responseCache;
+    private final IDataConverter converter;
+    private final BookUpsertService upsertService;
+    private final String baseUrl;
+
+    /**
+     * Outcome of a registration attempt.
+     */
+    public enum Status { SAVED, ALREADY_REGISTERED, NOT_FOUND, NO_AUTHOR }
+
+    /**
+     * @param status The outcome.
+     * @param book   The saved book when the status is SAVED, otherwise null.
+     */
+    public record Registration(Status status, BookSummaryDTO book) {}
+
+    public BookRegistrationService(ResponseCache responseCache, IDataConverter converter,
+                                   BookUpsertService upsertService,
+                                   @Value("${literalura.gutendex.base-url}") String baseUrl) {
+        this.responseCache = responseCache;
+        this.converter = converter;
+        this.upsertService = upsertService;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Searches Gutendex by title and registers the first result.
+     *
+     * @param title The title (or part of it) to search for.
+     * @return The outcome of the registration.
+     */
+    public Registration searchAndRegister(String title) {
+        String searchUrl = baseUrl + "?search=" + URLEncoder.encode(title, StandardCharsets.UTF_8);
+        ApiResponseDTO apiResponse = converter.getData(responseCache.fetchStream(searchUrl), ApiResponseDTO.class);
+        if (apiResponse == null || apiResponse.results() == null || apiResponse.results().isEmpty()) {
+            return new Registration(Status.NOT_FOUND, null);
+        }
+        return register(apiResponse.results().getFirst());
+    }
+
+    /**
+     * Registers a book returned by Gutendex with all of its authors, reusing the ones already
+     * registered. Safe to call concurrently for the same book: exactly one caller gets SAVED.
+     *
+     * @param bookDTO The book to register.
+     * @return The outcome of the registration.
+     */
+    public Registration register(BookDTO bookDTO) {
+        if (bookDTO.authors() == null || bookDTO.authors().stream().noneMatch(a -> a != null && a.name() != null && !a.name().isBlank())) {
+            return new Registration(Status.NO_AUTHOR, null);
+        }
+        BookUpsertService.Result result = upsertService.upsert(List.of(bookDTO));
+        if (result.inserted().isEmpty()) {
+            return new Registration(Status.ALREADY_REGISTERED, null);
+        }
+        return new Registration(Status.SAVED, result.inserted().getFirst());
+    }
+}
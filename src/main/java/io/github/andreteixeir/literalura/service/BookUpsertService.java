@@ -0,0 +1,458 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.event.AuthorSavedEvent;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.event.GutendexIdsTaggedEvent;
+import io.github.andreteixeir.literalura.model.SearchKeys;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service class responsible for saving batches of Gutendex books and all of their authors
+ * idempotently, so concurrent imports and registrations never create duplicates or fail on them.
+ * <p>
+ * Books are identified by their Gutendex id, which the unique index on books.gutendex_id enforces
+ * and {@link GutendexIdFilter} checks in memory before anything is sent; books without one fall
+ * back to their normalized title.
+ * <p>
+ * On PostgreSQL every row is written with {@code INSERT ... ON CONFLICT DO NOTHING}, sent as one
+ * JDBC batch per table; a conflicting row simply reports an update count of 0. Other databases
+ * (H2 in tests) use an insert-only {@code MERGE} per row, and a row that loses a race with another
+ * transaction is treated as already registered. Authors are resolved with a single query per
+ * batch after their inserts, so every caller sees the same ids whoever inserted them. The
+ * Hibernate second-level and query caches are invalidated for the tables that received rows.
+ */
+@Service
+public class BookUpsertService {
+    // Must match the allocationSize of the books_seq/authors_seq generators: ids are taken in
+    // blocks exactly like Hibernate's pooled optimizer does, so JPA and JDBC inserts never collide.
+    static final int ID_BLOCK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GutendexIdFilter idFilter;
+    private final int batchSize;
+    private volatile Boolean postgres;
+
+    /**
+     * Outcome of an upsert.
+     *
+     * @param inserted        The books inserted by this call, by Gutendex id, then the books without one by
+     *                        normalized title.
+     * @param authorsInserted Number of authors inserted by this call.
+     * @param skipped         Number of input books not inserted: already registered, repeated
+     *                        in the batch, or without a title or authors.
+     */
+    public record Result(List<BookSummaryDTO> inserted, int authorsInserted, int skipped) {}
+
+    public BookUpsertService(JdbcTemplate jdbcTemplate, EntityManager entityManager, ApplicationEventPublisher eventPublisher,
+                             GutendexIdFilter idFilter, @Value("${literalura.ingestion.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.idFilter = idFilter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Links books saved before the book_authors table existed to their author.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public void backfillAuthorLinks() {
+        int linked = jdbcTemplate.update("""
+                INSERT INTO book_authors (book_id, author_id)
+                SELECT b.id, b.author_id FROM books b
+                WHERE b.author_id IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM book_authors l WHERE l.book_id = b.id)
+                """);
+        if (linked > 0) {
+            System.out.println(linked + " livros vinculados aos seus autores.");
+        }
+    }
+
+    /**
+     * Records the language of books saved before the book_languages table existed.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public void backfillLanguages() {
+        int listed = jdbcTemplate.update("""
+                INSERT INTO book_languages (book_id, language)
+                SELECT b.id, b.language FROM books b
+                WHERE b.language IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM book_languages l WHERE l.book_id = b.id)
+                """);
+        if (listed > 0) {
+            System.out.println(listed + " livros com seus idiomas registrados.");
+        }
+    }
+
+    /**
+     * Drops the unique constraints earlier versions put on the book title, which rejected
+     * different editions of the same title. Hibernate's schema update never removes them.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public void relaxTitleUniqueness() {
+        if (!isPostgres()) {
+            return;
+        }
+        List<String> constraints = jdbcTemplate.queryForList("""
+                SELECT c.conname FROM pg_constraint c
+                JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+                WHERE c.conrelid = 'books'::regclass AND c.contype = 'u' AND a.attname IN ('title', 'title_key')
+                """, String.class);
+        constraints.forEach(name -> jdbcTemplate.execute("ALTER TABLE books DROP CONSTRAINT \"" + name + "\""));
+        boolean uniqueIndex = Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_indexes
+                               WHERE tablename = 'books' AND indexname = 'idx_books_title_key' AND indexdef LIKE 'CREATE UNIQUE%')
+                """, Boolean.class));
+        if (uniqueIndex) {
+            jdbcTemplate.execute("DROP INDEX idx_books_title_key");
+            jdbcTemplate.execute("CREATE INDEX idx_books_title_key ON books (title_key)");
+        }
+        if (uniqueIndex || !constraints.isEmpty()) {
+            System.out.println("Títulos de livros não precisam mais ser únicos: edições diferentes podem ser registradas.");
+        }
+    }
+
+    /**
+     * Saves the books that are not registered yet, with every one of their authors.
+     * Books are matched by Gutendex id, or by normalized title when they have none, and authors by
+     * normalized name; existing rows are left untouched, except that a book saved without its
+     * Gutendex id receives it. Events are published only for the rows this call inserted.
+     *
+     * @param books The books to save, e.g. one page of Gutendex results.
+     * @return The books and number of authors inserted by this call.
+     */
+    @Transactional
+    public Result upsert(List<BookDTO> books) {
+        // Ids the filter knows are stored are dropped without a query.
+        Set<Integer> stored = idFilter.stored(books.stream().map(BookDTO::id).filter(Objects::nonNull).toList());
+        // One candidate per Gutendex id, or per normalized title for books without one; books
+        // without a title or an author cannot be saved. Rows are written in key order: two callers
+        // inserting overlapping batches then wait for each other's rows in the same order, so they
+        // cannot deadlock on the unique indexes.
+        Map<Integer, BookDTO> byId = new TreeMap<>();
+        Map<String, BookDTO> byTitle = new TreeMap<>();
+        Map<String, AuthorDTO> authors = new TreeMap<>();
+        for (BookDTO dto : books) {
+            List<AuthorDTO> credited = namedAuthors(dto);
+            if (dto.title() == null || credited.isEmpty() || stored.contains(dto.id())) {
+                continue;
+            }
+            boolean added = dto.id() != null
+                    ? byId.putIfAbsent(dto.id(), dto) == null
+                    : byTitle.putIfAbsent(SearchKeys.normalize(dto.title()), dto) == null;
+            if (added) {
+                credited.forEach(a -> authors.putIfAbsent(SearchKeys.normalize(a.name()), a));
+            }
+        }
+        if (byId.isEmpty() && byTitle.isEmpty()) {
+            return new Result(List.of(), 0, books.size());
+        }
+
+        List<AuthorRow> authorRows = new ArrayList<>(authors.size());
+        List<Long> authorIds = allocateIds("authors_seq", authors.size());
+        int i = 0;
+        for (Map.Entry<String, AuthorDTO> entry : authors.entrySet()) {
+            AuthorDTO a = entry.getValue();
+            authorRows.add(new AuthorRow(authorIds.get(i++), a.name(), entry.getKey(), a.birthYear(), a.deathYear()));
+        }
+        int[] authorCounts = insertAuthors(authorRows);
+        Map<String, AuthorRow> resolved = resolveAuthors(authors.keySet());
+
+        List<Long> bookIds = allocateIds("books_seq", byId.size() + byTitle.size());
+        List<BookRow> rowsById = bookRows(byId.values(), bookIds.subList(0, byId.size()), resolved);
+        List<BookRow> rowsByTitle = bookRows(byTitle.values(), bookIds.subList(byId.size(), bookIds.size()), resolved);
+        // Books stored before their Gutendex id was recorded receive it, and are then found by it.
+        List<Integer> tagged = idFilter.hasUntaggedBooks() ? tagUntaggedBooks(rowsById) : List.of();
+        int[] countsById = insertBooksById(rowsById);
+        int[] countsByTitle = insertBooksByTitle(rowsByTitle);
+
+        List<BookRow> insertedBooks = new ArrayList<>();
+        for (int b = 0; b < rowsById.size(); b++) {
+            if (countsById[b] > 0) {
+                insertedBooks.add(rowsById.get(b));
+            }
+        }
+        for (int b = 0; b < rowsByTitle.size(); b++) {
+            if (countsByTitle[b] > 0) {
+                insertedBooks.add(rowsByTitle.get(b));
+            }
+        }
+        linkAuthors(insertedBooks);
+        listLanguages(insertedBooks);
+        invalidateCaches(authorCounts, insertedBooks, !tagged.isEmpty());
+
+        // Listeners receive these only after the caller's transaction commits.
+        int authorsInserted = 0;
+        for (int a = 0; a < authorRows.size(); a++) {
+            if (authorCounts[a] > 0) {
+                AuthorRow row = authorRows.get(a);
+                eventPublisher.publishEvent(new AuthorSavedEvent(row.id(), row.name(), row.birthYear(), row.deathYear()));
+                authorsInserted++;
+            }
+        }
+        if (!tagged.isEmpty()) {
+            eventPublisher.publishEvent(new GutendexIdsTaggedEvent(tagged));
+        }
+        List<BookSummaryDTO> inserted = new ArrayList<>(insertedBooks.size());
+        for (BookRow row : insertedBooks) {
+            eventPublisher.publishEvent(new BookSavedEvent(row.id(), row.gutendexId(), row.title(), row.language(),
+                    row.languages(), row.downloadCount(), row.author().id(), row.author().name()));
+            inserted.add(new BookSummaryDTO(row.id(), row.title(), row.author().name(), row.language(), row.downloadCount()));
+        }
+        return new Result(Collections.unmodifiableList(inserted), authorsInserted, books.size() - inserted.size());
+    }
+
+    private record AuthorRow(Long id, String name, String nameKey, Integer birthYear, Integer deathYear) {}
+
+    // language is the first of languages, or null when the book lists none.
+    private record BookRow(Long id, Integer gutendexId, String title, String titleKey, String language, List<String> languages,
+                           Double downloadCount, AuthorRow author, List<Long> authorIds) {}
+
+    private static List<BookRow> bookRows(Collection<BookDTO> books, List<Long> ids, Map<String, AuthorRow> resolved) {
+        List<BookRow> rows = new ArrayList<>(books.size());
+        int i = 0;
+        for (BookDTO dto : books) {
+            List<AuthorRow> credited = namedAuthors(dto).stream().map(a -> resolved.get(SearchKeys.normalize(a.name()))).toList();
+            Set<Long> creditedIds = new LinkedHashSet<>();
+            credited.forEach(a -> creditedIds.add(a.id()));
+            List<String> languages = SearchKeys.languageCodes(dto.languages());
+            rows.add(new BookRow(ids.get(i++), dto.id(), dto.title(), SearchKeys.normalize(dto.title()),
+                    languages.isEmpty() ? null : languages.getFirst(), languages, dto.downloadCount(), credited.getFirst(),
+                    List.copyOf(creditedIds)));
+        }
+        return rows;
+    }
+
+    private static List<AuthorDTO> namedAuthors(BookDTO dto) {
+        if (dto.authors() == null) {
+            return List.of();
+        }
+        return dto.authors().stream().filter(a -> a != null && a.name() != null && !a.name().isBlank()).toList();
+    }
+
+    private int[] insertAuthors(List<AuthorRow> rows) {
+        String sql = isPostgres()
+                ? "INSERT INTO authors (id, name, name_key, birth_year, death_year) VALUES (?, ?, ?, ?, ?) ON CONFLICT DO NOTHING"
+                : """
+                  MERGE INTO authors t
+                  USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS INTEGER), CAST(? AS INTEGER)))
+                      AS s (id, name, name_key, birth_year, death_year)
+                  ON t.name_key = s.name_key
+                  WHEN NOT MATCHED THEN INSERT (id, name, name_key, birth_year, death_year)
+                      VALUES (s.id, s.name, s.name_key, s.birth_year, s.death_year)
+                  """;
+        return write(sql, rows.stream().map(r -> new Object[]{r.id(), r.name(), r.nameKey(), r.birthYear(), r.deathYear()}).toList(),
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER});
+    }
+
+    // Books with a Gutendex id: a row with the same id is a duplicate, whatever its title.
+    private int[] insertBooksById(List<BookRow> rows) {
+        String sql = isPostgres()
+                ? "INSERT INTO books (id, gutendex_id, title, title_key, language, download_count, author_id) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING"
+                : """
+                  MERGE INTO books t
+                  USING (VALUES (CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS VARCHAR(1024)), CAST(? AS VARCHAR(1024)),
+                                 CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT)))
+                      AS s (id, gutendex_id, title, title_key, language, download_count, author_id)
+                  ON t.gutendex_id = s.gutendex_id
+                  WHEN NOT MATCHED THEN INSERT (id, gutendex_id, title, title_key, language, download_count, author_id)
+                      VALUES (s.id, s.gutendex_id, s.title, s.title_key, s.language, s.download_count, s.author_id)
+                  """;
+        return write(sql, rows.stream().map(r -> new Object[]{r.id(), r.gutendexId(), r.title(), r.titleKey(), r.language(),
+                        r.downloadCount(), r.author().id()}).toList(),
+                new int[]{Types.BIGINT, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.BIGINT});
+    }
+
+    // Books without a Gutendex id (e.g. from older archives): any book with the same normalized
+    // title is a duplicate. No index enforces it, so two transactions inserting the same title at
+    // the same moment can both succeed.
+    private int[] insertBooksByTitle(List<BookRow> rows) {
+        String sql = isPostgres()
+                ? """
+                  INSERT INTO books (id, title, title_key, language, download_count, author_id)
+                  SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM books WHERE title_key = ?)
+                  """
+                : """
+                  MERGE INTO books t
+                  USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(1024)), CAST(? AS VARCHAR(1024)), CAST(? AS VARCHAR(255)),
+                                 CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT), CAST(? AS VARCHAR(1024))))
+                      AS s (id, title, title_key, language, download_count, author_id, match_key)
+                  ON t.title_key = s.match_key
+                  WHEN NOT MATCHED THEN INSERT (id, title, title_key, language, download_count, author_id)
+                      VALUES (s.id, s.title, s.title_key, s.language, s.download_count, s.author_id)
+                  """;
+        return write(sql, rows.stream().map(r -> new Object[]{r.id(), r.title(), r.titleKey(), r.language(),
+                        r.downloadCount(), r.author().id(), r.titleKey()}).toList(),
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.BIGINT, Types.VARCHAR});
+    }
+
+    /**
+     * Records the Gutendex id of a stored book that was saved without one, so it is not stored a
+     * second time. The stored book must have the same normalized title, first author and first
+     * language: under the old unique-title rule it may be another edition, which would then be
+     * tied to this id and receive its download counts from the refresh. Ambiguous matches are
+     * left untagged, and the book is inserted as a new row.
+     *
+     * @return The Gutendex ids recorded.
+     */
+    private List<Integer> tagUntaggedBooks(List<BookRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        int[] counts = jdbcTemplate.batchUpdate("""
+                UPDATE books SET gutendex_id = ?
+                WHERE id = (SELECT MIN(u.id) FROM books u
+                            WHERE u.title_key = ? AND u.author_id = ? AND u.language IS NOT DISTINCT FROM CAST(? AS VARCHAR(255))
+                              AND u.gutendex_id IS NULL
+                            HAVING COUNT(*) = 1)
+                  AND NOT EXISTS (SELECT 1 FROM books o WHERE o.gutendex_id = ?)
+                """, rows.stream().map(r -> new Object[]{r.gutendexId(), r.titleKey(), r.author().id(), r.language(), r.gutendexId()}).toList(),
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.INTEGER});
+        List<Integer> tagged = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                tagged.add(rows.get(i).gutendexId());
+            }
+        }
+        return tagged;
+    }
+
+    /**
+     * Tells Hibernate which tables the JDBC writes touched, as it does for its own native
+     * updates: cached query results over them are discarded now and again after the commit,
+     * and the Book/Author cache regions mapped to them are evicted.
+     */
+    private void invalidateCaches(int[] authorCounts, List<BookRow> insertedBooks, boolean booksUpdated) {
+        Set<String> tables = new LinkedHashSet<>();
+        if (Arrays.stream(authorCounts).anyMatch(count -> count > 0)) {
+            tables.add("authors");
+        }
+        if (!insertedBooks.isEmpty()) {
+            tables.add("books");
+            tables.add("book_authors");
+            tables.add("book_languages");
+        } else if (booksUpdated) {
+            tables.add("books");
+        }
+        if (!tables.isEmpty()) {
+            BulkOperationCleanupAction.schedule(entityManager.unwrap(SessionImplementor.class), tables);
+        }
+    }
+
+    private void linkAuthors(List<BookRow> books) {
+        List<Object[]> links = new ArrayList<>();
+        books.forEach(b -> b.authorIds().forEach(authorId -> links.add(new Object[]{b.id(), authorId})));
+        // The books are new, so their links cannot exist yet.
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO book_authors (book_id, author_id) VALUES (?, ?)", links,
+                    new int[]{Types.BIGINT, Types.BIGINT});
+        }
+    }
+
+    private void listLanguages(List<BookRow> books) {
+        List<Object[]> rows = new ArrayList<>();
+        books.forEach(b -> b.languages().forEach(language -> rows.add(new Object[]{b.id(), language})));
+        // The books are new, so their languages cannot be listed yet.
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO book_languages (book_id, language) VALUES (?, ?)", rows,
+                    new int[]{Types.BIGINT, Types.VARCHAR});
+        }
+    }
+
+    /**
+     * Runs a conflict-free insert for each row and returns one update count per row (0 when the
+     * row already existed).
+     */
+    private int[] write(String sql, List<Object[]> rows, int[] types) {
+        int[] counts = new int[rows.size()];
+        if (isPostgres()) {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                List<Object[]> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+                int[] chunkCounts = jdbcTemplate.batchUpdate(sql, chunk, types);
+                System.arraycopy(chunkCounts, 0, counts, from, chunkCounts.length);
+            }
+            return counts;
+        }
+        // MERGE checks and inserts in two steps, so a concurrent transaction can still win the
+        // unique index; unlike PostgreSQL, a failed statement does not abort the transaction here.
+        for (int r = 0; r < rows.size(); r++) {
+            try {
+                counts[r] = jdbcTemplate.update(sql, rows.get(r));
+            } catch (DataIntegrityViolationException e) {
+                counts[r] = 0;
+            }
+        }
+        return counts;
+    }
+
+    // Finds the ids of the batch's authors in a single round-trip, whoever inserted them.
+    private Map<String, AuthorRow> resolveAuthors(Set<String> nameKeys) {
+        Map<String, AuthorRow> resolved = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(nameKeys.size(), "?"));
+        jdbcTemplate.query("SELECT id, name, name_key, birth_year, death_year FROM authors WHERE name_key IN (" + placeholders + ")",
+                rs -> {
+                    resolved.put(rs.getString("name_key"), new AuthorRow(rs.getLong("id"), rs.getString("name"),
+                            rs.getString("name_key"), rs.getObject("birth_year", Integer.class), rs.getObject("death_year", Integer.class)));
+                }, nameKeys.toArray());
+        if (resolved.size() != nameKeys.size()) {
+            throw new IllegalStateException("Authors missing after upsert: " + nameKeys.stream().filter(k -> !resolved.containsKey(k)).toList());
+        }
+        return resolved;
+    }
+
+    /**
+     * Reserves ids from a sequence the way Hibernate's pooled optimizer does: each value read is
+     * the upper end of a block of {@link #ID_BLOCK} ids.
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        String sql = isPostgres() ? "SELECT nextval('" + sequence + "')" : "SELECT NEXT VALUE FOR " + sequence;
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long hi = jdbcTemplate.queryForObject(sql, Long.class);
+            for (long id = Math.max(1, hi - ID_BLOCK + 1); id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(database);
+            postgres = result;
+        }
+        return result;
+    }
+}
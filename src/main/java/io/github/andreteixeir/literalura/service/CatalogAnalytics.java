@@ -0,0 +1,236 @@
+package io.github.andreteixeir.literalura.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Service class responsible for group-by analytics over the download counts of the catalog:
+ * per language, per author and per birth century of the author, with count, sum, min, max and
+ * percentiles for each group.
+ * <p>
+ * The queries scan the columns of {@link CatalogSnapshot} in a dedicated fork/join pool of
+ * {@code literalura.analytics.parallelism} threads (0 = one per core). The book positions are
+ * split in halves until a chunk is small enough; each chunk fills its own {@link Accumulator}s,
+ * and the partial results are merged pairwise on the way back up, so no accumulator is shared
+ * between threads.
+ */
+@Service
+public class CatalogAnalytics implements AutoCloseable {
+    /** Relative error of the reported percentiles. */
+    static final double SKETCH_ACCURACY = 0.01;
+    // Books per leaf task: large enough to amortize the task overhead, small enough to balance the work.
+    private static final int CHUNK_SIZE = 16_384;
+    // Key returned by a grouping for books that belong to no group.
+    private static final int NO_GROUP = Integer.MIN_VALUE;
+
+    private final CatalogSnapshot snapshot;
+    private final ForkJoinPool pool;
+
+    /**
+     * Download statistics of one group of books. The percentiles are within 1% of an exact value.
+     *
+     * @param books          Number of books in the group.
+     * @param withDownloads  Number of those books with a known download count.
+     * @param totalDownloads Sum of the known download counts.
+     */
+    public record Summary(long books, long withDownloads, double totalDownloads,
+                          Double minDownloads, Double maxDownloads, Double averageDownloads,
+                          Double medianDownloads, Double p90Downloads, Double p99Downloads) {}
+
+    public CatalogAnalytics(CatalogSnapshot snapshot,
+                            @Value("${literalura.analytics.parallelism}") int parallelism) {
+        this.snapshot = snapshot;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Download statistics of the whole catalog.
+     */
+    public Summary overall() {
+        return group(snapshot.columns(), position -> 0).getOrDefault(0, new Accumulator()).summary();
+    }
+
+    /**
+     * Download statistics per language; books without a language are left out.
+     *
+     * @return Statistics per language code, sorted by code.
+     */
+    public Map<String, Summary> byLanguage() {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        Map<Integer, Accumulator> groups = group(columns, position -> {
+            int code = columns.languages[position] & 0xFF;
+            return code == 0 ? NO_GROUP : code;
+        });
+        Map<String, Summary> result = new TreeMap<>();
+        groups.forEach((code, accumulator) -> result.put(columns.languageNames[code], accumulator.summary()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Download statistics per author (the first credited author of each book).
+     *
+     * @return Statistics per author id, sorted by id.
+     */
+    public Map<Long, Summary> byAuthor() {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        Map<Integer, Accumulator> groups = group(columns, position -> {
+            int author = columns.bookAuthors[position];
+            return author < 0 ? NO_GROUP : author;
+        });
+        Map<Long, Summary> result = new TreeMap<>();
+        groups.forEach((author, accumulator) -> result.put(columns.authorIds[author], accumulator.summary()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Download statistics per birth century of the first credited author; books whose author
+     * has no known birth year are left out.
+     *
+     * @return Statistics per first year of the century (e.g. 1800 for authors born 1800-1899), sorted.
+     */
+    public Map<Integer, Summary> byBirthCentury() {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        Map<Integer, Accumulator> groups = group(columns, position -> {
+            int author = columns.bookAuthors[position];
+            if (author < 0 || columns.births[author] == CatalogSnapshot.NO_YEAR) {
+                return NO_GROUP;
+            }
+            return Math.floorDiv(columns.births[author], 100) * 100;
+        });
+        Map<Integer, Summary> result = new TreeMap<>();
+        groups.forEach((century, accumulator) -> result.put(century, accumulator.summary()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * The number of threads used by the queries.
+     */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // keyOf maps a book position to its group, or to NO_GROUP to leave the book out.
+    private Map<Integer, Accumulator> group(CatalogSnapshot.Columns columns, IntUnaryOperator keyOf) {
+        return pool.invoke(new GroupTask(columns, keyOf, 0, columns.bookCount));
+    }
+
+    /**
+     * Aggregates the books in [from, to) into one accumulator per group, splitting the range
+     * while it is larger than {@link #CHUNK_SIZE}.
+     */
+    private static final class GroupTask extends RecursiveTask<Map<Integer, Accumulator>> {
+        private final CatalogSnapshot.Columns columns;
+        private final IntUnaryOperator keyOf;
+        private final int from;
+        private final int to;
+
+        GroupTask(CatalogSnapshot.Columns columns, IntUnaryOperator keyOf, int from, int to) {
+            this.columns = columns;
+            this.keyOf = keyOf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, Accumulator> compute() {
+            if (to - from > CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                GroupTask left = new GroupTask(columns, keyOf, from, middle);
+                left.fork();
+                Map<Integer, Accumulator> right = new GroupTask(columns, keyOf, middle, to).compute();
+                return merge(left.join(), right);
+            }
+            Map<Integer, Accumulator> groups = new HashMap<>();
+            double[] downloads = columns.downloads;
+            // Consecutive books often share a group (an author's books, one language); skip the lookup.
+            int lastKey = NO_GROUP;
+            Accumulator last = null;
+            for (int i = from; i < to; i++) {
+                int key = keyOf.applyAsInt(i);
+                if (key == NO_GROUP) {
+                    continue;
+                }
+                if (last == null || key != lastKey) {
+                    last = groups.computeIfAbsent(key, k -> new Accumulator());
+                    lastKey = key;
+                }
+                last.add(downloads[i]);
+            }
+            return groups;
+        }
+
+        private static Map<Integer, Accumulator> merge(Map<Integer, Accumulator> a, Map<Integer, Accumulator> b) {
+            Map<Integer, Accumulator> into = a.size() >= b.size() ? a : b;
+            Map<Integer, Accumulator> from = into == a ? b : a;
+            from.forEach((key, accumulator) -> into.merge(key, accumulator, Accumulator::merge));
+            return into;
+        }
+    }
+
+    /**
+     * Mergeable accumulator of download counts: count, sum, min, max and a {@link QuantileSketch}.
+     * Not thread-safe; each task fills its own and merges it into another afterwards.
+     */
+    static final class Accumulator {
+        private long books;
+        private long withDownloads;
+        private double total;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private final QuantileSketch sketch = new QuantileSketch(SKETCH_ACCURACY);
+
+        /**
+         * @param downloads The download count of one book, NaN when unknown.
+         */
+        void add(double downloads) {
+            books++;
+            if (Double.isNaN(downloads)) {
+                return;
+            }
+            withDownloads++;
+            total += downloads;
+            min = Math.min(min, downloads);
+            max = Math.max(max, downloads);
+            sketch.add(downloads);
+        }
+
+        /**
+         * Adds another accumulator's values to this one and returns this one.
+         */
+        Accumulator merge(Accumulator other) {
+            books += other.books;
+            withDownloads += other.withDownloads;
+            total += other.total;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sketch.merge(other.sketch);
+            return this;
+        }
+
+        Summary summary() {
+            if (withDownloads == 0) {
+                return new Summary(books, 0, 0, null, null, null, null, null, null);
+            }
+            return new Summary(books, withDownloads, total, min, max, total / withDownloads,
+                    quantile(0.5), quantile(0.9), quantile(0.99));
+        }
+
+        // The sketch answers with the middle of a bucket, which can fall outside the exact range.
+        private double quantile(double q) {
+            return Math.clamp(sketch.quantile(q), min, max);
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.event.CatalogImportedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Service class responsible for exporting the catalog to a compact binary archive and importing
+ * it back, to seed an environment without crawling Gutendex again.
+ * <p>
+ * Format (version 1): the magic {@code LTRA}, a version byte and a flags byte (bit 0: the rest of
+ * the file is deflate-compressed), followed by length-prefixed records, each a type byte and its
+ * fields. Languages and authors are written once and referenced by their index; integers are
+ * variable-length, and download counts are stored as integers when they have no fraction.
+ * Readers skip record types they do not know, and the bytes left in a record after the fields
+ * they know, so later versions can add records and append fields (the book's Gutendex id and its
+ * languages after the first were appended this way).
+ * <p>
+ * The import maps the file in windows with {@link FileChannel#map}, so an archive of any size is
+ * read without loading it on the heap, and saves the books through {@link BookUpsertService}
+ * in transactions of {@value #IMPORT_PAGE} books: rows already registered are skipped.
+ */
+@Service
+public class CatalogArchiveService {
+    static final byte[] MAGIC = {'L', 'T', 'R', 'A'};
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATE = 1;
+    static final int IMPORT_PAGE = 1_000;
+    // Mapped per window: a MappedByteBuffer is limited to 2 GB, and released windows can be unmapped.
+    private static final long WINDOW = 64L << 20;
+
+    static final int END = 0;
+    static final int LANGUAGE = 1;
+    static final int AUTHOR = 2;
+    static final int BOOK = 3;
+
+    // Field flags of the author and book records.
+    static final int HAS_BIRTH = 1;
+    static final int HAS_DEATH = 2;
+    static final int HAS_LANGUAGE = 1;
+    static final int HAS_DOWNLOADS = 2;
+    static final int INTEGRAL_DOWNLOADS = 4;
+    static final int HAS_GUTENDEX_ID = 8;
+    static final int HAS_MORE_LANGUAGES = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookUpsertService upsertService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Summary of an export.
+     *
+     * @param bytes Size of the written file.
+     */
+    public record ExportReport(long authors, long books, long bytes, Duration elapsed) {}
+
+    /**
+     * Summary of an import.
+     *
+     * @param booksRead       Books found in the archive.
+     * @param booksInserted   Books that were not registered yet and were saved.
+     * @param authorsInserted Authors that were not registered yet and were saved.
+     */
+    public record ImportReport(long booksRead, long booksInserted, long authorsInserted, Duration elapsed) {}
+
+    public CatalogArchiveService(JdbcTemplate jdbcTemplate, BookUpsertService upsertService,
+                                 TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        // A copy with a fetch size, so the export streams the tables through a cursor instead of
+        // loading every row (PostgreSQL's driver buffers whole results without one).
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(500);
+        this.upsertService = upsertService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Writes every author and book, with all of their credited authors, to an archive file.
+     *
+     * @param file     The file to create or replace.
+     * @param compress Whether to deflate the records.
+     * @return The number of rows and bytes written.
+     */
+    @Transactional(readOnly = true)
+    public ExportReport export(Path file, boolean compress) {
+        long start = System.nanoTime();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream fileOut = Files.newOutputStream(file)) {
+            fileOut.write(MAGIC);
+            fileOut.write(VERSION);
+            fileOut.write(compress ? FLAG_DEFLATE : 0);
+            OutputStream body = compress ? new DeflaterOutputStream(fileOut, deflater, 64 * 1024) : fileOut;
+            RecordWriter writer = new RecordWriter(new DataOutputStream(new BufferedOutputStream(body, 64 * 1024)));
+
+            Map<Long, Integer> authorIndexes = new HashMap<>();
+            jdbcTemplate.query("SELECT id, name, birth_year, death_year FROM authors ORDER BY id", rs -> {
+                Integer birth = rs.getObject("birth_year", Integer.class);
+                Integer death = rs.getObject("death_year", Integer.class);
+                authorIndexes.put(rs.getLong("id"), authorIndexes.size());
+                writer.author(rs.getString("name"), birth, death);
+            });
+
+            // Languages listed after the first one; few books have any, so they are read up front.
+            Map<Long, List<String>> moreLanguages = new HashMap<>();
+            jdbcTemplate.query("""
+                    SELECT l.book_id, l.language FROM book_languages l JOIN books b ON b.id = l.book_id
+                    WHERE b.language IS NULL OR l.language <> b.language
+                    ORDER BY l.book_id, l.language
+                    """, rs -> {
+                moreLanguages.computeIfAbsent(rs.getLong("book_id"), id -> new ArrayList<>(2)).add(rs.getString("language"));
+            });
+
+            // One row per credited author, the first credited author first; books without any
+            // author keep one row with a null author id.
+            Map<String, Integer> languageIndexes = new HashMap<>();
+            BookRow[] current = {null};
+            jdbcTemplate.query("""
+                    SELECT b.id, b.gutendex_id, b.title, b.language, b.download_count, l.author_id
+                    FROM books b LEFT JOIN book_authors l ON l.book_id = b.id
+                    ORDER BY b.id, CASE WHEN l.author_id = b.author_id THEN 0 ELSE 1 END, l.author_id
+                    """, rs -> {
+                long id = rs.getLong("id");
+                if (current[0] == null || current[0].id != id) {
+                    if (current[0] != null) {
+                        writer.book(current[0], languageIndexes);
+                    }
+                    current[0] = new BookRow(id, rs.getObject("gutendex_id", Integer.class), rs.getString("title"),
+                            rs.getString("language"), moreLanguages.getOrDefault(id, List.of()),
+                            rs.getObject("download_count", Double.class));
+                }
+                long authorId = rs.getLong("author_id");
+                Integer authorIndex = rs.wasNull() ? null : authorIndexes.get(authorId);
+                if (authorIndex != null) { // Null too for an author saved after the authors were written.
+                    current[0].authors.add(authorIndex);
+                }
+            });
+            if (current[0] != null) {
+                writer.book(current[0], languageIndexes);
+            }
+            writer.end();
+            writer.out.close(); // Finishes the compressed stream, if any, and closes the file.
+            return new ExportReport(writer.authors, writer.books, Files.size(file), Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            System.err.println("Could not export the catalog to " + file + ": " + e.getMessage());
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Saves the books and authors of an archive that are not registered yet.
+     *
+     * @param file An archive written by {@link #export}.
+     * @return The number of books read and of rows inserted.
+     * @throws IllegalArgumentException If the file is not an archive, has an unsupported version or
+     *                                  is corrupt (the books before the damage are kept).
+     */
+    public ImportReport importArchive(Path file) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            InputStream mapped = new MappedInputStream(channel);
+            byte[] header = mapped.readNBytes(MAGIC.length + 2);
+            if (header.length < MAGIC.length + 2 || !Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC)) {
+                throw new IllegalArgumentException("Not a catalog archive: " + file);
+            }
+            int version = header[MAGIC.length] & 0xFF;
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported catalog archive version " + version + ": " + file);
+            }
+            InputStream body = (header[MAGIC.length + 1] & FLAG_DEFLATE) != 0
+                    ? new BufferedInputStream(new InflaterInputStream(mapped), 64 * 1024)
+                    : mapped;
+            try (DataInputStream in = new DataInputStream(body)) {
+                return readRecords(in, start);
+            }
+        } catch (EOFException | ZipException e) {
+            // Truncated, or damaged compressed data.
+            throw corrupt(e.getMessage() + ": " + file);
+        } catch (IOException e) {
+            System.err.println("Could not import the catalog from " + file + ": " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ImportReport readRecords(DataInputStream in, long start) throws IOException {
+        List<String> languages = new ArrayList<>();
+        List<AuthorDTO> authors = new ArrayList<>();
+        List<BookDTO> page = new ArrayList<>(IMPORT_PAGE);
+        long[] counts = new long[3]; // books read, books inserted, authors inserted
+        int pages = 0;
+        RecordReader record = new RecordReader();
+        while (record.next(in)) {
+            switch (record.type) {
+                case LANGUAGE -> languages.add(record.string());
+                case AUTHOR -> {
+                    String name = record.string();
+                    int flags = record.varInt();
+                    Integer birth = (flags & HAS_BIRTH) != 0 ? record.signedVarInt() : null;
+                    Integer death = (flags & HAS_DEATH) != 0 ? record.signedVarInt() : null;
+                    authors.add(new AuthorDTO(name, birth, death));
+                }
+                case BOOK -> {
+                    String title = record.string();
+                    int flags = record.varInt();
+                    List<String> bookLanguages = new ArrayList<>(1);
+                    if ((flags & HAS_LANGUAGE) != 0) {
+                        bookLanguages.add(entry(languages, record.varInt(), "language"));
+                    }
+                    Double downloads = null;
+                    if ((flags & INTEGRAL_DOWNLOADS) != 0) {
+                        downloads = (double) record.varLong();
+                    } else if ((flags & HAS_DOWNLOADS) != 0) {
+                        downloads = record.doubleValue();
+                    }
+                    int authorCount = record.count();
+                    List<AuthorDTO> credited = new ArrayList<>(authorCount);
+                    for (int i = 0; i < authorCount; i++) {
+                        credited.add(entry(authors, record.varInt(), "author"));
+                    }
+                    Integer gutendexId = (flags & HAS_GUTENDEX_ID) != 0 ? record.varInt() : null;
+                    if ((flags & HAS_MORE_LANGUAGES) != 0) {
+                        for (int i = record.count(); i > 0; i--) {
+                            bookLanguages.add(entry(languages, record.varInt(), "language"));
+                        }
+                    }
+                    page.add(new BookDTO(gutendexId, title, credited, bookLanguages, downloads));
+                    counts[0]++;
+                    if (page.size() == IMPORT_PAGE) {
+                        savePage(page, counts);
+                        pages++;
+                    }
+                }
+                default -> {
+                    // A record type added by a later version: skipped whole thanks to its length.
+                }
+            }
+        }
+        if (!page.isEmpty()) {
+            savePage(page, counts);
+            pages++;
+        }
+        eventPublisher.publishEvent(new CatalogImportedEvent(pages, counts[1]));
+        return new ImportReport(counts[0], counts[1], counts[2], Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // Looks up a language or author written earlier in the archive.
+    private static <T> T entry(List<T> dictionary, int index, String kind) {
+        if (index < 0 || index >= dictionary.size()) {
+            throw corrupt("unknown " + kind + " index " + index);
+        }
+        return dictionary.get(index);
+    }
+
+    private static IllegalArgumentException corrupt(String detail) {
+        return new IllegalArgumentException("Corrupt catalog archive: " + detail);
+    }
+
+    private void savePage(List<BookDTO> page, long[] counts) {
+        BookUpsertService.Result result = transactionTemplate.execute(status -> upsertService.upsert(page));
+        counts[1] += result.inserted().size();
+        counts[2] += result.authorsInserted();
+        page.clear();
+    }
+
+    private static final class BookRow {
+        final long id;
+        final Integer gutendexId;
+        final String title;
+        final String language;
+        final List<String> moreLanguages;
+        final Double downloads;
+        final List<Integer> authors = new ArrayList<>(2);
+
+        BookRow(long id, Integer gutendexId, String title, String language, List<String> moreLanguages, Double downloads) {
+            this.id = id;
+            this.gutendexId = gutendexId;
+            this.title = title;
+            this.language = language;
+            this.moreLanguages = moreLanguages;
+            this.downloads = downloads;
+        }
+    }
+
+    /**
+     * Encodes records into a reusable buffer and writes each one after its length.
+     */
+    private static final class RecordWriter {
+        final DataOutputStream out;
+        long authors;
+        long books;
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        RecordWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void author(String name, Integer birth, Integer death) {
+            begin(AUTHOR);
+            string(name);
+            varInt((birth != null ? HAS_BIRTH : 0) | (death != null ? HAS_DEATH : 0));
+            if (birth != null) {
+                signedVarInt(birth);
+            }
+            if (death != null) {
+                signedVarInt(death);
+            }
+            flush();
+            authors++;
+        }
+
+        void book(BookRow book, Map<String, Integer> languageIndexes) {
+            // Language records are written before the book record that references them.
+            Integer language = book.language != null ? languageIndex(book.language, languageIndexes) : null;
+            int[] moreLanguages = book.moreLanguages.stream().mapToInt(l -> languageIndex(l, languageIndexes)).toArray();
+            begin(BOOK);
+            string(book.title);
+            Double downloads = book.downloads;
+            boolean integral = downloads != null && downloads >= 0 && downloads == Math.rint(downloads) && downloads < 0x1p62;
+            varInt((language != null ? HAS_LANGUAGE : 0) | (downloads != null ? HAS_DOWNLOADS : 0) | (integral ? INTEGRAL_DOWNLOADS : 0)
+                    | (book.gutendexId != null ? HAS_GUTENDEX_ID : 0) | (moreLanguages.length > 0 ? HAS_MORE_LANGUAGES : 0));
+            if (language != null) {
+                varInt(language);
+            }
+            if (integral) {
+                varLong(downloads.longValue());
+            } else if (downloads != null) {
+                ensure(8);
+                long bits = Double.doubleToLongBits(downloads);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    buffer[size++] = (byte) (bits >>> shift);
+                }
+            }
+            varInt(book.authors.size());
+            book.authors.forEach(this::varInt);
+            if (book.gutendexId != null) {
+                varInt(book.gutendexId);
+            }
+            if (moreLanguages.length > 0) {
+                varInt(moreLanguages.length);
+                Arrays.stream(moreLanguages).forEach(this::varInt);
+            }
+            flush();
+            books++;
+        }
+
+        private int languageIndex(String language, Map<String, Integer> languageIndexes) {
+            Integer index = languageIndexes.get(language);
+            if (index == null) {
+                index = languageIndexes.size();
+                languageIndexes.put(language, index);
+                begin(LANGUAGE);
+                string(language);
+                flush();
+            }
+            return index;
+        }
+
+        void end() {
+            begin(END);
+            flush();
+        }
+
+        private void begin(int type) {
+            size = 0;
+            ensure(1);
+            buffer[size++] = (byte) type;
+        }
+
+        private void flush() {
+            try {
+                writeVarLong(out, size);
+                out.write(buffer, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void string(String value) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            varInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void signedVarInt(int value) {
+            varInt((value << 1) ^ (value >> 31)); // Zig-zag: small negative years stay short.
+        }
+
+        private void varInt(int value) {
+            varLong(value & 0xFFFFFFFFL);
+        }
+
+        private void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void ensure(int more) {
+            if (size + more > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + more));
+            }
+        }
+
+        private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    /**
+     * Reads one record at a time into a reusable buffer and decodes its fields.
+     */
+    private static final class RecordReader {
+        int type;
+        private byte[] buffer = new byte[256];
+        private int length;
+        private int position;
+
+        /**
+         * Reads the next record.
+         *
+         * @return False at the end record.
+         * @throws EOFException If the file ends before the end record.
+         */
+        boolean next(DataInputStream in) throws IOException {
+            long recordLength = readVarLong(in);
+            if (recordLength < 1 || recordLength > Integer.MAX_VALUE) {
+                throw corrupt("record length " + recordLength);
+            }
+            length = (int) recordLength;
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            type = buffer[0] & 0xFF;
+            position = 1;
+            return type != END;
+        }
+
+        String string() throws IOException {
+            int bytes = varInt();
+            check(bytes);
+            String value = new String(buffer, position, bytes, StandardCharsets.UTF_8);
+            position += bytes;
+            return value;
+        }
+
+        int varInt() throws IOException {
+            return (int) varLong();
+        }
+
+        /**
+         * Reads the number of entries that follow, each taking at least one byte of the record.
+         */
+        int count() throws IOException {
+            int count = varInt();
+            if (count < 0 || count > length - position) {
+                throw corrupt("count " + count + " past the end of its record");
+            }
+            return count;
+        }
+
+        int signedVarInt() throws IOException {
+            int value = varInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long varLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                check(1);
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw corrupt("variable-length integer too long");
+        }
+
+        double doubleValue() throws IOException {
+            check(8);
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buffer[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private void check(int bytes) throws IOException {
+            if (bytes < 0 || position + bytes > length) {
+                throw corrupt("field past the end of its record");
+            }
+        }
+
+        private static long readVarLong(DataInputStream in) throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException("ends before its end record");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw corrupt("variable-length integer too long");
+        }
+    }
+
+    /**
+     * Reads a file through a sequence of read-only memory mappings of {@link #WINDOW} bytes,
+     * so the data is paged in by the OS instead of being copied to the heap in bulk.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long mappedUpTo;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return nextWindow() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            return count;
+        }
+
+        // Makes sure the current window has bytes left, mapping the next one if needed.
+        private boolean nextWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (mappedUpTo >= size) {
+                return false;
+            }
+            long length = Math.min(WINDOW, size - mappedUpTo);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, mappedUpTo, length);
+            mappedUpTo += length;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.event.CatalogImportedEvent;
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import io.github.andreteixeir.literalura.repository.IngestionCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class responsible for importing the whole Gutendex catalog.
+ * It follows the API's "next" page links through {@link FetchScheduler}, converts each page
+ * and saves its books and authors with {@link BookUpsertService}. Every page is committed together with an
+ * {@link IngestionCheckpoint}, so an interrupted import resumes from the last committed page.
+ */
+@Service
+public class CatalogIngestionService {
+    public static final String CHECKPOINT_NAME = "gutendex-catalog";
+
+    private final FetchScheduler scheduler;
+    private final IDataConverter converter;
+    private final BookUpsertService upsertService;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String baseUrl;
+    private final int prefetchPages;
+    private final Timer pageTimer;
+    private final Counter booksIngested;
+    private final Counter authorsIngested;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CatalogIngestionService(FetchScheduler scheduler,
+                                   IDataConverter converter,
+                                   BookUpsertService upsertService,
+                                   IngestionCheckpointRepository checkpointRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${literalura.gutendex.base-url}") String baseUrl,
+                                   @Value("${literalura.ingestion.prefetch-pages}") int prefetchPages,
+                                   MeterRegistry meterRegistry) {
+        this.scheduler = scheduler;
+        this.converter = converter;
+        this.upsertService = upsertService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.baseUrl = baseUrl;
+        this.prefetchPages = prefetchPages;
+        this.pageTimer = Timer.builder("literalura.ingestion.page")
+                .description("Time to save and commit one page of the catalog import")
+                .register(meterRegistry);
+        this.booksIngested = rowsCounter(meterRegistry, "books");
+        this.authorsIngested = rowsCounter(meterRegistry, "authors");
+    }
+
+    private static Counter rowsCounter(MeterRegistry meterRegistry, String entity) {
+        return Counter.builder("literalura.ingestion.rows")
+                .description("Rows inserted by the catalog import")
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Summary of an import run.
+     *
+     * @param pages         Number of pages committed during this run.
+     * @param booksSaved    Number of new books saved during this run.
+     * @param elapsed       Wall-clock duration of the run.
+     * @param resumed       Whether the run continued a previously interrupted import.
+     */
+    public record Report(int pages, long booksSaved, Duration elapsed, boolean resumed) {
+        public double rowsPerSecond() {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? booksSaved / seconds : 0.0;
+        }
+    }
+
+    /**
+     * Imports every page of the catalog, starting from the last committed page when a
+     * previous run was interrupted, or from the first page otherwise.
+     *
+     * @return A report with the pages and books processed and the achieved throughput.
+     * @throws OperationAlreadyRunningException If another import is already running.
+     */
+    public Report ingestCatalog() {
+        // The console and the REST API can both start an import; only one may run at a time.
+        if (!running.compareAndSet(false, true)) {
+            throw new OperationAlreadyRunningException("A catalog import is already running");
+        }
+        try {
+            return runImport();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Whether an import is currently running.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private Report runImport() {
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .filter(c -> !c.getCompleted() && c.getNextUrl() != null)
+                .orElseGet(() -> new IngestionCheckpoint(CHECKPOINT_NAME, baseUrl));
+        boolean resumed = checkpoint.getPagesCommitted() > 0;
+        if (resumed) {
+            System.out.println("Retomando importação a partir da página " + (checkpoint.getPagesCommitted() + 1) + "...");
+        } else {
+            // A fresh run replaces the checkpoint of an already completed import.
+            checkpointRepository.save(checkpoint);
+        }
+
+        long start = System.nanoTime();
+        int pages = 0;
+        long booksSaved = 0;
+        // Pages are fetched and parsed on another thread while this one saves. The queue is
+        // bounded, so when the database is slower than the API the fetcher waits instead of
+        // piling up parsed pages in memory.
+        BlockingQueue<ParsedPage> parsed = new ArrayBlockingQueue<>(prefetchPages);
+        Thread fetcher = Thread.ofVirtual().name("catalog-fetcher").start(() -> fetchPages(checkpoint.getNextUrl(), parsed));
+        try {
+            ParsedPage parsedPage;
+            do {
+                parsedPage = parsed.take();
+                if (parsedPage.error() != null) {
+                    throw parsedPage.error();
+                }
+                ParsedPage current = parsedPage;
+                PageResult page = pageTimer.record(() -> transactionTemplate.execute(status -> savePage(current.results(), current.next())));
+                // Counted once the page is committed.
+                booksIngested.increment(page.books());
+                authorsIngested.increment(page.authors());
+                int saved = page.books();
+                pages++;
+                booksSaved += saved;
+
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                System.out.printf("Página %d importada: %d livros novos (%.1f livros/s)%n",
+                        checkpoint.getPagesCommitted() + pages, saved, booksSaved / seconds);
+            } while (parsedPage.next() != null);
+        } catch (InterruptedException e) {
+            System.err.println("Catalog import was interrupted: " + e.getMessage());
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new RuntimeException(e);
+        } finally {
+            fetcher.interrupt();
+        }
+        Report report = new Report(pages, booksSaved, Duration.ofNanos(System.nanoTime() - start), resumed);
+        eventPublisher.publishEvent(new CatalogImportedEvent(pages, booksSaved));
+        return report;
+    }
+
+    /**
+     * A page fetched and parsed ahead of the saving stage, or the error that stopped the fetcher.
+     */
+    private record ParsedPage(List<BookDTO> results, String next, RuntimeException error) {}
+
+    private void fetchPages(String url, BlockingQueue<ParsedPage> parsed) {
+        try {
+            while (url != null) {
+                List<BookDTO> results = new ArrayList<>();
+                String next = converter.readResults(new ByteArrayInputStream(scheduler.fetch(url)), results::add);
+                parsed.put(new ParsedPage(results, next, null));
+                url = next;
+            }
+        } catch (InterruptedException e) {
+            // The saving stage stopped; nothing is waiting for more pages.
+        } catch (RuntimeException e) {
+            // The queue may be full of pages still to be saved, so wait for room: the saving stage
+            // blocks on the queue until the error arrives, or interrupts this thread once it stops.
+            try {
+                parsed.put(new ParsedPage(List.of(), null, e));
+            } catch (InterruptedException stopped) {
+                // The saving stage stopped; nobody needs the error.
+            }
+        }
+    }
+
+    /**
+     * Saves one page of results and advances the checkpoint in the same transaction.
+     *
+     * @param results The books of the page.
+     * @param next    The link to the following page, or null on the last page.
+     * @return The number of new books and authors saved.
+     */
+    private PageResult savePage(List<BookDTO> results, String next) {
+        // Joins the page's transaction, so the rows and the checkpoint commit together.
+        BookUpsertService.Result saved = upsertService.upsert(results);
+
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> new IngestionCheckpoint(CHECKPOINT_NAME, baseUrl));
+        checkpoint.setNextUrl(next);
+        checkpoint.setPagesCommitted(checkpoint.getPagesCommitted() + 1);
+        checkpoint.setBooksSaved(checkpoint.getBooksSaved() + saved.inserted().size());
+        checkpoint.setCompleted(next == null);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        return new PageResult(saved.inserted().size(), saved.authorsInserted());
+    }
+
+    private record PageResult(int books, int authors) {}
+}
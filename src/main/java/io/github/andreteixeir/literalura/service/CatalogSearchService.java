@@ -0,0 +1,187 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.model.SearchKeys;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class responsible for fuzzy, ranked search over titles and author names.
+ * On PostgreSQL it uses trigram GIN indexes (pg_trgm) over the normalized key columns and
+ * ranks by word similarity, so misspelled or partial names still match. On other databases
+ * (H2 in tests) it falls back to token matching over the same keys.
+ */
+@Service
+public class CatalogSearchService {
+    private static final int BACKFILL_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    // Null until prepareIndexes() ran or the first search looked for the indexes.
+    private volatile Boolean trigramSearch;
+
+    /**
+     * A search hit: the id of the matching row and its relevance (higher is better, at most 1).
+     */
+    public record Match(long id, double score) {}
+
+    public CatalogSearchService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                AuthorRepository authorRepository, BookRepository bookRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Prepares the search indexes once the schema exists: fills in keys of rows saved before the
+     * key columns existed and, on PostgreSQL, creates the trigram indexes.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public void prepareIndexes() {
+        backfillKeys();
+        if (!isPostgres()) {
+            trigramSearch = false;
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_authors_name_key_trgm ON authors USING gin (name_key gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_books_title_key_trgm ON books USING gin (title_key gin_trgm_ops)");
+            trigramSearch = true;
+        } catch (DataAccessException e) {
+            // Creating an extension needs privileges the database user may not have.
+            System.err.println("Trigram search unavailable, using token matching: " + e.getMessage());
+            trigramSearch = false;
+        }
+    }
+
+    /**
+     * Whether the trigram indexes exist. Without the startup warm-up, the first search checks for
+     * the indexes an earlier regular run created.
+     */
+    private boolean trigramSearch() {
+        Boolean result = trigramSearch;
+        if (result == null) {
+            result = isPostgres() && Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) = 2 FROM pg_indexes
+                    WHERE indexname IN ('idx_authors_name_key_trgm', 'idx_books_title_key_trgm')
+                    """, Boolean.class));
+            trigramSearch = result;
+        }
+        return result;
+    }
+
+    private boolean isPostgres() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(database);
+    }
+
+    /**
+     * Searches authors by name, best matches first.
+     *
+     * @param query The (partial or approximate) name to search for.
+     * @param limit The maximum number of authors to return.
+     * @return The matching authors with their books loaded, ordered by relevance.
+     */
+    public List<Author> searchAuthors(String query, int limit) {
+        List<Match> matches = search("authors", "name_key", query, limit);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Author> byId = new HashMap<>();
+        authorRepository.findWithBooksByIdIn(matches.stream().map(Match::id).toList()).forEach(a -> byId.put(a.getId(), a));
+        return matches.stream().map(m -> byId.get(m.id())).filter(a -> a != null).toList();
+    }
+
+    /**
+     * Searches registered book titles, best matches first.
+     *
+     * @param query The (partial or approximate) title to search for.
+     * @param limit The maximum number of matches to return.
+     * @return The ids and scores of the matching books, ordered by relevance.
+     */
+    public List<Match> searchBooks(String query, int limit) {
+        return search("books", "title_key", query, limit);
+    }
+
+    private List<Match> search(String table, String keyColumn, String query, int limit) {
+        String key = SearchKeys.normalize(query);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        if (trigramSearch()) {
+            // "<%" is answered by the GIN trigram index; word_similarity ranks partial-name matches.
+            return jdbcTemplate.query(
+                    "SELECT id, word_similarity(?, " + keyColumn + ") AS score FROM " + table +
+                            " WHERE ? <% " + keyColumn + " ORDER BY score DESC, id LIMIT ?",
+                    (rs, rowNum) -> new Match(rs.getLong("id"), rs.getDouble("score")),
+                    key, key, limit);
+        }
+        return tokenSearch(table, keyColumn, key, limit);
+    }
+
+    /**
+     * Portable fallback: every token of the query must occur in the key. Exact matches rank
+     * first, then prefix matches, then the shortest keys (closest to the query); the score
+     * follows the same order.
+     */
+    private List<Match> tokenSearch(String table, String keyColumn, String key, int limit) {
+        String[] tokens = key.split(" ");
+        StringBuilder sql = new StringBuilder("SELECT id, ").append(keyColumn).append(" AS search_key FROM ").append(table).append(" WHERE ");
+        List<Object> arguments = new ArrayList<>();
+        for (int i = 0; i < tokens.length; i++) {
+            sql.append(i == 0 ? "" : " AND ").append(keyColumn).append(" LIKE ?");
+            arguments.add("%" + tokens[i] + "%");
+        }
+        sql.append(" ORDER BY CASE WHEN ").append(keyColumn).append(" = ? THEN 0 WHEN ").append(keyColumn)
+                .append(" LIKE ? THEN 1 ELSE 2 END, LENGTH(").append(keyColumn).append("), id LIMIT ?");
+        arguments.addAll(Arrays.asList(key, key + "%", limit));
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> {
+                    String found = rs.getString("search_key");
+                    double closeness = (double) key.length() / Math.max(key.length(), found.length());
+                    double score = found.equals(key) ? 1.0 : found.startsWith(key) ? 0.5 + 0.4 * closeness : 0.4 * closeness;
+                    return new Match(rs.getLong("id"), score);
+                },
+                arguments.toArray());
+    }
+
+    private void backfillKeys() {
+        // Dirty checking writes the keys when each batch's transaction commits.
+        List<Author> authors;
+        do {
+            authors = transactionTemplate.execute(status -> {
+                List<Author> batch = authorRepository.findByNameKeyIsNullAndNameIsNotNull(Limit.of(BACKFILL_BATCH));
+                batch.forEach(a -> a.setNameKey(SearchKeys.normalize(a.getName())));
+                return batch;
+            });
+        } while (authors.size() == BACKFILL_BATCH);
+        List<Book> books;
+        do {
+            books = transactionTemplate.execute(status -> {
+                List<Book> batch = bookRepository.findByTitleKeyIsNullAndTitleIsNotNull(Limit.of(BACKFILL_BATCH));
+                batch.forEach(b -> b.setTitleKey(SearchKeys.normalize(b.getTitle())));
+                return batch;
+            });
+        } while (books.size() == BACKFILL_BATCH);
+    }
+}
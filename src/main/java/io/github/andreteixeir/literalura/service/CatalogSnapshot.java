@@ -0,0 +1,571 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.dto.AuthorLifespanDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.event.CatalogImportedEvent;
+import io.github.andreteixeir.literalura.event.DownloadCountsChangedEvent;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class that keeps a read-only, columnar copy of the catalog for analytics.
+ * Each book is a position in a set of primitive arrays (download counts as {@code double[]},
+ * dictionary-encoded languages as {@code byte[]}, the author as an index into the author columns,
+ * whose years are {@code int[]}), and titles and names are deduplicated in a string pool. Language
+ * and year filters, top-N and aggregates are plain loops over those arrays, without entities,
+ * boxing or the database.
+ * <p>
+ * The snapshot is rebuilt at startup (or by the first read when the startup warm-up is off, see
+ * {@link StartupWarmUp}) and after every catalog import ({@link CatalogImportedEvent}),
+ * and the new copy replaces the old one atomically, so a reader always sees one consistent
+ * version. Books registered one at a time are not visible until the next refresh; see
+ * {@link #loadedAt()}. Refreshed download counts ({@link DownloadCountsChangedEvent}) are applied
+ * to a copy of the downloads column, which replaces it the same way. Setting
+ * {@code literalura.snapshot.enabled=false} keeps it empty.
+ */
+@Service
+public class CatalogSnapshot {
+    // Stand-in for a missing birth/death year in the int columns.
+    static final int NO_YEAR = Integer.MIN_VALUE;
+    // Language code 0 is reserved for books without a language.
+    private static final int MAX_LANGUAGES = 255;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLifespan;
+    private final boolean enabled;
+
+    private volatile Columns columns = Columns.EMPTY;
+    private volatile boolean loaded;
+
+    /**
+     * Totals over the download counts of a set of books.
+     *
+     * @param books          Number of books considered.
+     * @param withDownloads  Number of those books with a known download count.
+     * @param totalDownloads Sum of the known download counts.
+     * @param minDownloads   Smallest known download count, or null if there is none.
+     * @param maxDownloads   Largest known download count, or null if there is none.
+     */
+    public record Aggregates(long books, long withDownloads, double totalDownloads, Double minDownloads, Double maxDownloads) {
+        /**
+         * The average download count, or null if no book has one.
+         */
+        public Double averageDownloads() {
+            return withDownloads == 0 ? null : totalDownloads / withDownloads;
+        }
+    }
+
+    /**
+     * Size of the snapshot.
+     *
+     * @param bytes Approximate heap used by the columns and the string pool.
+     */
+    public record Footprint(int books, int authors, int languages, int pooledStrings, long bytes) {}
+
+    public CatalogSnapshot(BookRepository bookRepository,
+                           AuthorRepository authorRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${literalura.authors.max-lifespan}") int maxLifespan,
+                           @Value("${literalura.snapshot.enabled}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLifespan = maxLifespan;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads a new snapshot from the database and publishes it once complete. Queries running
+     * meanwhile keep reading the previous one.
+     */
+    @EventListener(CatalogImportedEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        if (!enabled) {
+            loaded = true;
+            return;
+        }
+        try (Stream<AuthorLifespanDTO> authors = authorRepository.streamLifespans();
+             Stream<RankedBookDTO> books = bookRepository.streamCatalog()) {
+            load(authors, books);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the given rows instead of reading the repositories.
+     * Used by {@link #refresh()}, and by benchmarks that need a synthetic catalog.
+     *
+     * @param authors Every author; the order does not matter.
+     * @param books   Every book, in id order. Their authors must be among {@code authors}.
+     */
+    public synchronized void load(Stream<AuthorLifespanDTO> authors, Stream<RankedBookDTO> books) {
+        Columns.Builder builder = new Columns.Builder();
+        authors.forEach(author -> builder.addAuthor(author, maxLifespan));
+        builder.sortAuthors();
+        books.forEach(builder::addBook);
+        columns = builder.build(Instant.now());
+        loaded = true;
+    }
+
+    /**
+     * Loads the first snapshot at startup, unless the startup warm-up is off.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public void warmUp() {
+        current();
+    }
+
+    private Columns current() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    transactionTemplate.executeWithoutResult(status -> refresh());
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Applies refreshed download counts. Books loaded after the snapshot are ignored; the next
+     * refresh brings them in.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        Columns current = columns;
+        if (!enabled || current.bookCount == 0) {
+            return;
+        }
+        double[] downloads = current.downloads.clone();
+        for (DownloadCountsChangedEvent.Change change : event.changes()) {
+            int position = Arrays.binarySearch(current.bookIds, change.bookId());
+            if (position >= 0) {
+                downloads[position] = change.current();
+            }
+        }
+        columns = current.withDownloads(downloads);
+    }
+
+    /**
+     * The current version of the columns, for the analytics that scan them directly.
+     */
+    Columns columns() {
+        return current();
+    }
+
+    /**
+     * When the current snapshot was loaded, or null if it never was.
+     */
+    public Instant loadedAt() {
+        return columns.loadedAt;
+    }
+
+    /**
+     * Counts the books in a language.
+     *
+     * @param language The language code (e.g. "pt").
+     * @return The number of books in the language.
+     */
+    public long countByLanguage(String language) {
+        Columns c = current();
+        int code = c.languageCode(language);
+        if (code < 0) {
+            return 0;
+        }
+        byte wanted = (byte) code;
+        byte[] languages = c.languages;
+        long count = 0;
+        for (int i = 0; i < c.bookCount; i++) {
+            if (languages[i] == wanted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the books of every language in a single pass.
+     *
+     * @return Books per language code, sorted by code; books without a language are not included.
+     */
+    public Map<String, Long> countsByLanguage() {
+        Columns c = current();
+        long[] counts = new long[c.languageNames.length];
+        byte[] languages = c.languages;
+        for (int i = 0; i < c.bookCount; i++) {
+            counts[languages[i] & 0xFF]++;
+        }
+        Map<String, Long> result = new TreeMap<>();
+        for (int code = 1; code < counts.length; code++) {
+            result.put(c.languageNames[code], counts[code]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Computes count, sum, minimum and maximum of the download counts.
+     *
+     * @param language A language code, or null for the whole catalog.
+     * @return The aggregates of the matching books.
+     */
+    public Aggregates aggregates(String language) {
+        Columns c = current();
+        int code = language == null ? -1 : c.languageCode(language);
+        if (language != null && code < 0) {
+            return new Aggregates(0, 0, 0, null, null);
+        }
+        double[] downloads = c.downloads;
+        byte[] languages = c.languages;
+        long books = 0;
+        long withDownloads = 0;
+        double total = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < c.bookCount; i++) {
+            if (code >= 0 && languages[i] != (byte) code) {
+                continue;
+            }
+            books++;
+            double value = downloads[i];
+            if (!Double.isNaN(value)) {
+                withDownloads++;
+                total += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return withDownloads == 0
+                ? new Aggregates(books, 0, 0, null, null)
+                : new Aggregates(books, withDownloads, total, min, max);
+    }
+
+    /**
+     * Returns the most downloaded books.
+     *
+     * @param language A language code, or null for the whole catalog.
+     * @param n        How many books to return.
+     * @return Up to n books with a known download count, most downloaded first (ties by id).
+     */
+    public List<RankedBookDTO> top(String language, int n) {
+        Columns c = current();
+        int code = language == null ? -1 : c.languageCode(language);
+        if (n <= 0 || (language != null && code < 0)) {
+            return List.of();
+        }
+        double[] downloads = c.downloads;
+        byte[] languages = c.languages;
+        // Min-heap of positions holding the best n seen so far; the root is the current last place.
+        int[] heap = new int[Math.min(n, c.bookCount)];
+        int size = 0;
+        for (int i = 0; i < c.bookCount; i++) {
+            if ((code >= 0 && languages[i] != (byte) code) || Double.isNaN(downloads[i])) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = i;
+                siftUp(heap, size++, c);
+            } else if (ranksBefore(c, i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, size, c);
+            }
+        }
+        RankedBookDTO[] result = new RankedBookDTO[size];
+        while (size > 0) {
+            int position = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, c);
+            result[size] = c.ranked(position);
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Finds the authors alive in a given year, with the same rule as {@link AuthorLifespanIndex}:
+     * authors without a birth year are not returned, and those without a death year count as
+     * alive for {@code literalura.authors.max-lifespan} years.
+     *
+     * @param year The year to check.
+     * @return The ids of the matching authors, in ascending order.
+     */
+    public long[] authorsAliveIn(int year) {
+        Columns c = current();
+        int[] births = c.births;
+        int[] lastYearsAlive = c.lastYearsAlive;
+        long[] found = new long[16];
+        int size = 0;
+        for (int i = 0; i < c.authorCount; i++) {
+            // Authors without a birth year have NO_YEAR in both columns and fail the second check.
+            if (births[i] <= year && lastYearsAlive[i] >= year) {
+                if (size == found.length) {
+                    found = Arrays.copyOf(found, size * 2);
+                }
+                found[size++] = c.authorIds[i];
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /**
+     * Reports the size of the current snapshot.
+     */
+    public Footprint footprint() {
+        Columns c = current();
+        return new Footprint(c.bookCount, c.authorCount, c.languageNames.length - 1, c.pooledStrings, c.bytes);
+    }
+
+    // Whether the book at position a ranks before the one at b: more downloads, then the lower id.
+    private static boolean ranksBefore(Columns c, int a, int b) {
+        double da = c.downloads[a];
+        double db = c.downloads[b];
+        return da != db ? da > db : c.bookIds[a] < c.bookIds[b];
+    }
+
+    private static void siftUp(int[] heap, int index, Columns c) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBefore(c, heap[parent], heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Columns c) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && ranksBefore(c, heap[worst], heap[left])) {
+                worst = left;
+            }
+            if (right < size && ranksBefore(c, heap[worst], heap[right])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    /**
+     * One immutable version of the snapshot: parallel arrays indexed by book position (in id order)
+     * and by author position (in id order).
+     */
+    static final class Columns {
+        static final Columns EMPTY = new Builder().build(null);
+
+        final int bookCount;
+        final long[] bookIds;
+        final String[] titles;
+        final byte[] languages;
+        final double[] downloads; // NaN when unknown
+        final int[] bookAuthors;  // Position in the author columns, -1 when unknown
+
+        final int authorCount;
+        final long[] authorIds;
+        final String[] authorNames;
+        final int[] births;
+        final int[] lastYearsAlive;
+
+        final String[] languageNames; // Index 0 is the missing language
+        final Map<String, Integer> languageCodes;
+        final int pooledStrings;
+        final long bytes;
+        final Instant loadedAt;
+
+        private Columns(Builder b, Instant loadedAt) {
+            this.bookCount = b.bookCount;
+            this.bookIds = Arrays.copyOf(b.bookIds, b.bookCount);
+            this.titles = Arrays.copyOf(b.titles, b.bookCount);
+            this.languages = Arrays.copyOf(b.languages, b.bookCount);
+            this.downloads = Arrays.copyOf(b.downloads, b.bookCount);
+            this.bookAuthors = Arrays.copyOf(b.bookAuthors, b.bookCount);
+            this.authorCount = b.authorCount;
+            this.authorIds = Arrays.copyOf(b.authorIds, b.authorCount);
+            this.authorNames = Arrays.copyOf(b.authorNames, b.authorCount);
+            this.births = Arrays.copyOf(b.births, b.authorCount);
+            this.lastYearsAlive = Arrays.copyOf(b.lastYearsAlive, b.authorCount);
+            this.languageNames = b.languageNames.toArray(String[]::new);
+            this.languageCodes = Map.copyOf(b.languageCodes);
+            this.pooledStrings = b.pool.size();
+            this.loadedAt = loadedAt;
+            this.bytes = estimateBytes(b.pool.keySet());
+        }
+
+        // A copy sharing every column but the download counts.
+        private Columns(Columns base, double[] downloads) {
+            this.bookCount = base.bookCount;
+            this.bookIds = base.bookIds;
+            this.titles = base.titles;
+            this.languages = base.languages;
+            this.downloads = downloads;
+            this.bookAuthors = base.bookAuthors;
+            this.authorCount = base.authorCount;
+            this.authorIds = base.authorIds;
+            this.authorNames = base.authorNames;
+            this.births = base.births;
+            this.lastYearsAlive = base.lastYearsAlive;
+            this.languageNames = base.languageNames;
+            this.languageCodes = base.languageCodes;
+            this.pooledStrings = base.pooledStrings;
+            this.bytes = base.bytes;
+            this.loadedAt = base.loadedAt;
+        }
+
+        Columns withDownloads(double[] downloads) {
+            return new Columns(this, downloads);
+        }
+
+        int languageCode(String language) {
+            Integer code = language == null ? null : languageCodes.get(language);
+            return code == null ? -1 : code;
+        }
+
+        RankedBookDTO ranked(int position) {
+            int author = bookAuthors[position];
+            return new RankedBookDTO(bookIds[position], titles[position],
+                    author < 0 ? null : authorIds[author], author < 0 ? null : authorNames[author],
+                    languageNames[languages[position] & 0xFF], downloads[position]);
+        }
+
+        private long estimateBytes(Iterable<String> strings) {
+            // 16-byte array header plus the elements; references are 4 bytes with compressed oops.
+            long total = 9L * 16
+                    + bookCount * (8L + 4 + 1 + 8 + 4)
+                    + authorCount * (8L + 4 + 4 + 4);
+            for (String s : strings) {
+                total += 24 + 16 + s.length(); // String object plus a Latin-1 backing array
+            }
+            return total;
+        }
+
+        /**
+         * Accumulates rows into growable arrays while the repositories are streamed.
+         */
+        static final class Builder {
+            private final Map<String, String> pool = new HashMap<>();
+            private final List<String> languageNames = new ArrayList<>(Collections.singletonList(null));
+            private final Map<String, Integer> languageCodes = new HashMap<>();
+
+            private int bookCount;
+            private long[] bookIds = new long[1024];
+            private String[] titles = new String[1024];
+            private byte[] languages = new byte[1024];
+            private double[] downloads = new double[1024];
+            private int[] bookAuthors = new int[1024];
+
+            private int authorCount;
+            private long[] authorIds = new long[256];
+            private String[] authorNames = new String[256];
+            private int[] births = new int[256];
+            private int[] lastYearsAlive = new int[256];
+
+            void addAuthor(AuthorLifespanDTO author, int maxLifespan) {
+                if (authorCount == authorIds.length) {
+                    int capacity = authorCount * 2;
+                    authorIds = Arrays.copyOf(authorIds, capacity);
+                    authorNames = Arrays.copyOf(authorNames, capacity);
+                    births = Arrays.copyOf(births, capacity);
+                    lastYearsAlive = Arrays.copyOf(lastYearsAlive, capacity);
+                }
+                authorIds[authorCount] = author.authorId();
+                births[authorCount] = author.birthYear() == null ? NO_YEAR : author.birthYear();
+                lastYearsAlive[authorCount] = author.birthYear() == null
+                        ? NO_YEAR : AuthorLifespanIndex.lastYearAlive(author.birthYear(), author.deathYear(), maxLifespan);
+                authorCount++;
+            }
+
+            // The lifespan stream is unordered; books find their author by binary search on the ids.
+            void sortAuthors() {
+                Integer[] order = new Integer[authorCount];
+                for (int i = 0; i < authorCount; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Long.compare(authorIds[a], authorIds[b]));
+                long[] ids = new long[authorIds.length];
+                int[] sortedBirths = new int[births.length];
+                int[] sortedLastYearsAlive = new int[lastYearsAlive.length];
+                for (int i = 0; i < authorCount; i++) {
+                    ids[i] = authorIds[order[i]];
+                    sortedBirths[i] = births[order[i]];
+                    sortedLastYearsAlive[i] = lastYearsAlive[order[i]];
+                }
+                authorIds = ids;
+                births = sortedBirths;
+                lastYearsAlive = sortedLastYearsAlive;
+            }
+
+            void addBook(RankedBookDTO book) {
+                if (bookCount == bookIds.length) {
+                    int capacity = bookCount * 2;
+                    bookIds = Arrays.copyOf(bookIds, capacity);
+                    titles = Arrays.copyOf(titles, capacity);
+                    languages = Arrays.copyOf(languages, capacity);
+                    downloads = Arrays.copyOf(downloads, capacity);
+                    bookAuthors = Arrays.copyOf(bookAuthors, capacity);
+                }
+                bookIds[bookCount] = book.bookId();
+                titles[bookCount] = pooled(book.title());
+                languages[bookCount] = (byte) languageCode(book.language());
+                downloads[bookCount] = book.downloadCount() == null ? Double.NaN : book.downloadCount();
+                int author = book.authorId() == null ? -1 : Arrays.binarySearch(authorIds, 0, authorCount, book.authorId());
+                bookAuthors[bookCount] = Math.max(author, -1);
+                if (author >= 0 && authorNames[author] == null) {
+                    authorNames[author] = pooled(book.authorName());
+                }
+                bookCount++;
+            }
+
+            Columns build(Instant loadedAt) {
+                return new Columns(this, loadedAt);
+            }
+
+            private int languageCode(String language) {
+                if (language == null) {
+                    return 0;
+                }
+                return languageCodes.computeIfAbsent(language, key -> {
+                    if (languageNames.size() > MAX_LANGUAGES) {
+                        throw new IllegalStateException("More than " + MAX_LANGUAGES + " languages in the catalog");
+                    }
+                    languageNames.add(pooled(key));
+                    return languageNames.size() - 1;
+                });
+            }
+
+            private String pooled(String value) {
+                return value == null ? null : pool.computeIfAbsent(value, key -> key);
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.dto.LanguageCountDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.event.AuthorSavedEvent;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.event.DownloadCountsChangedEvent;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class that keeps the catalog statistics precomputed in memory.
+ * The aggregate is rebuilt once at startup (or by the first read when the startup warm-up is
+ * off, see {@link StartupWarmUp}) and then maintained incrementally from
+ * {@link BookSavedEvent}/{@link AuthorSavedEvent}, so the statistics screen is an O(1) read
+ * instead of five queries that scan or sort the books table. Refreshed download counts
+ * ({@link DownloadCountsChangedEvent}) move books between histogram buckets; only when the most or
+ * least downloaded book moves inward is that book looked up again in the database.
+ */
+@Service
+public class CatalogStatistics {
+    /** Upper bounds (exclusive) of the download-count histogram buckets; the last bucket is open-ended. */
+    static final double[] HISTOGRAM_BOUNDS = {10, 100, 1_000, 10_000, 100_000};
+    static final String UNKNOWN_LANGUAGE = "?";
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Mutable aggregate, guarded by "this". Events are ignored until it is first built.
+    private volatile boolean loaded;
+    private long bookCount;
+    private long authorCount;
+    private long downloadSamples;
+    private double downloadSum;
+    private BookRef mostDownloaded;
+    private BookRef leastDownloaded;
+    // Ids of the two books above, to recognize them in download changes.
+    private Long mostDownloadedId;
+    private Long leastDownloadedId;
+    private final Map<String, Long> booksByLanguage = new TreeMap<>();
+    private final long[] histogram = new long[HISTOGRAM_BOUNDS.length + 1];
+
+    /**
+     * A book referenced by the statistics (title and download count only).
+     */
+    public record BookRef(String title, Double downloadCount) {}
+
+    /**
+     * Immutable copy of the statistics at a point in time.
+     *
+     * @param histogram Books per download bucket, see {@link #HISTOGRAM_BOUNDS}.
+     */
+    public record Snapshot(long bookCount, long authorCount, Double averageDownloads,
+                           BookRef mostDownloaded, BookRef leastDownloaded,
+                           Map<String, Long> booksByLanguage, long[] histogram) {}
+
+    public CatalogStatistics(BookRepository bookRepository, AuthorRepository authorRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Rebuilds the aggregate from the database, streaming the books table once as projected rows;
+     * the counts per language come from the language index.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            bookCount = 0;
+            downloadSamples = 0;
+            downloadSum = 0;
+            mostDownloaded = null;
+            leastDownloaded = null;
+            mostDownloadedId = null;
+            leastDownloadedId = null;
+            booksByLanguage.clear();
+            Arrays.fill(histogram, 0);
+            authorCount = authorRepository.count();
+            // Projected rows, not entities: nothing accumulates in the persistence context.
+            try (Stream<RankedBookDTO> books = bookRepository.streamCatalog()) {
+                books.forEach(b -> add(b.bookId(), b.title(), b.downloadCount()));
+            }
+            booksByLanguage.putAll(countByLanguage());
+            loaded = true;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    transactionTemplate.executeWithoutResult(status -> rebuild());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookSaved(BookSavedEvent event) {
+        if (!loaded) {
+            return; // The first build reads the committed book.
+        }
+        add(event.bookId(), event.title(), event.downloadCount());
+        if (event.languages() == null || event.languages().isEmpty()) {
+            booksByLanguage.merge(UNKNOWN_LANGUAGE, 1L, Long::sum);
+        } else {
+            event.languages().forEach(language -> booksByLanguage.merge(language, 1L, Long::sum));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        boolean extremesMoved = false;
+        for (DownloadCountsChangedEvent.Change change : event.changes()) {
+            if (change.previous() != null) {
+                downloadSamples--;
+                downloadSum -= change.previous();
+                histogram[bucketOf(change.previous())]--;
+            }
+            // The refresh never clears a count.
+            downloadSamples++;
+            downloadSum += change.current();
+            histogram[bucketOf(change.current())]++;
+
+            // A book can overtake the extremes here, but when one of them moves inward the
+            // runner-up is unknown.
+            boolean mostDropped = change.bookId().equals(mostDownloadedId) && change.current() < mostDownloaded.downloadCount();
+            boolean leastRose = change.bookId().equals(leastDownloadedId) && change.current() > leastDownloaded.downloadCount();
+            if (mostDropped || leastRose) {
+                extremesMoved = true;
+            } else {
+                offerExtremes(change.bookId(), change.title(), change.current());
+            }
+        }
+        if (extremesMoved) {
+            // The event arrives after the commit, so the queries see the new counts.
+            Optional<Book> most = bookRepository.findFirstByDownloadCountNotNullOrderByDownloadCountDescIdAsc();
+            Optional<Book> least = bookRepository.findFirstByDownloadCountNotNullOrderByDownloadCountAscIdAsc();
+            mostDownloaded = most.map(b -> new BookRef(b.getTitle(), b.getDownloadCount())).orElse(null);
+            mostDownloadedId = most.map(Book::getId).orElse(null);
+            leastDownloaded = least.map(b -> new BookRef(b.getTitle(), b.getDownloadCount())).orElse(null);
+            leastDownloadedId = least.map(Book::getId).orElse(null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAuthorSaved(AuthorSavedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        authorCount++;
+    }
+
+    /**
+     * Returns the current statistics without touching the database, once the aggregate is built.
+     */
+    public synchronized Snapshot snapshot() {
+        ensureLoaded();
+        return new Snapshot(bookCount, authorCount,
+                downloadSamples == 0 ? null : downloadSum / downloadSamples,
+                mostDownloaded, leastDownloaded,
+                Collections.unmodifiableMap(new TreeMap<>(booksByLanguage)), histogram.clone());
+    }
+
+    /**
+     * Recomputes the statistics with aggregate queries and compares them with the maintained values.
+     *
+     * @return A description of every mismatch found; empty when the aggregate is consistent.
+     */
+    public List<String> verify() {
+        Snapshot current = snapshot();
+        List<String> mismatches = new ArrayList<>();
+        compare(mismatches, "bookCount", current.bookCount(), bookRepository.count());
+        compare(mismatches, "authorCount", current.authorCount(), authorRepository.count());
+        Double average = bookRepository.getAverageDownloadCount();
+        if (!closeTo(current.averageDownloads(), average)) {
+            mismatches.add("averageDownloads: maintained=" + current.averageDownloads() + ", recomputed=" + average);
+        }
+        compare(mismatches, "maxDownloads", downloads(current.mostDownloaded()), bookRepository.getMaxDownloadCount());
+        compare(mismatches, "minDownloads", downloads(current.leastDownloaded()), bookRepository.getMinDownloadCount());
+        compare(mismatches, "booksByLanguage", new TreeMap<>(current.booksByLanguage()), countByLanguage());
+        return mismatches;
+    }
+
+    // A book listing several languages counts once in each; books without any count under "?".
+    private Map<String, Long> countByLanguage() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (LanguageCountDTO row : bookRepository.countByLanguage()) {
+            counts.put(row.language() == null ? UNKNOWN_LANGUAGE : row.language(), row.count());
+        }
+        return counts;
+    }
+
+    private void add(Long id, String title, Double downloadCount) {
+        bookCount++;
+        if (downloadCount == null) {
+            return;
+        }
+        downloadSamples++;
+        downloadSum += downloadCount;
+        histogram[bucketOf(downloadCount)]++;
+        offerExtremes(id, title, downloadCount);
+    }
+
+    private void offerExtremes(Long id, String title, double downloadCount) {
+        // Ties keep the first book seen, like the ORDER BY ... LIMIT 1 queries they replace.
+        if (mostDownloaded == null || downloadCount > mostDownloaded.downloadCount() || id.equals(mostDownloadedId)) {
+            mostDownloaded = new BookRef(title, downloadCount);
+            mostDownloadedId = id;
+        }
+        if (leastDownloaded == null || downloadCount < leastDownloaded.downloadCount() || id.equals(leastDownloadedId)) {
+            leastDownloaded = new BookRef(title, downloadCount);
+            leastDownloadedId = id;
+        }
+    }
+
+    static int bucketOf(double downloadCount) {
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS.length && downloadCount >= HISTOGRAM_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static Double downloads(BookRef book) {
+        return book == null ? null : book.downloadCount();
+    }
+
+    private static boolean closeTo(Double a, Double b) {
+        if (a == null || b == null) {
+            return Objects.equals(a, b);
+        }
+        return Math.abs(a - b) <= 1e-6 * Math.max(1.0, Math.abs(b));
+    }
+
+    private static void compare(List<String> mismatches, String name, Object maintained, Object recomputed) {
+        if (!Objects.equals(maintained, recomputed)) {
+            mismatches.add(name + ": maintained=" + maintained + ", recomputed=" + recomputed);
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package io.github.andreteixeir.literalura.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
 
 /**
  * Implementation of IDataConverter using the Jackson library.
  * This class is responsible for deserializing JSON strings into Java objects.
  */
+@Component
 public class DataConverter implements IDataConverter {
     // ObjectMapper is the main class from Jackson that does the conversion.
-    private final ObjectMapper mapper = new ObjectMapper();
+    // The application-wide mapper is shared; it is thread-safe once configured.
+    private final ObjectMapper mapper;
+    // Readers are immutable and cache the deserializer, so one is built up front.
+    private final ObjectReader bookReader;
+    private final MeterRegistry meterRegistry;
+    // Parse time is recorded once per document (a whole page), never per book.
+    private final Timer readResultsTimer;
+
+    public DataConverter(ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.mapper = mapper;
+        this.bookReader = mapper.readerFor(BookDTO.class);
+        this.meterRegistry = meterRegistry;
+        this.readResultsTimer = parseTimer("readResults", BookDTO.class);
+    }
 
     @Override
     public <T> T getData(String json, Class<T> clazz) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             // The readValue method attempts to parse the JSON and map it to the given class.
             return mapper.readValue(json, clazz);
@@ -20,6 +46,62 @@ public class DataConverter implements IDataConverter {
             // If the JSON is malformed or doesn't match, an exception is thrown.
             System.err.println("Error parsing JSON: " + e.getMessage());
             throw new RuntimeException(e);
+        } finally {
+            sample.stop(parseTimer("getData", clazz));
+        }
+    }
+
+    @Override
+    public <T> T getData(InputStream json, Class<T> clazz) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (json) {
+            return mapper.readValue(json, clazz);
+        } catch (IOException e) {
+            System.err.println("Error parsing JSON stream: " + e.getMessage());
+            throw new RuntimeException(e);
+        } finally {
+            sample.stop(parseTimer("getData", clazz));
+        }
+    }
+
+    @Override
+    public String readResults(InputStream json, Consumer<BookDTO> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String next = null;
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the root of the page");
+            }
+            // Walk the top-level fields; only "results" and "next" are of interest.
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    // Each element is bound on its own and released right after the action runs.
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        action.accept(bookReader.readValue(parser));
+                    }
+                } else if ("next".equals(field)) {
+                    next = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error parsing JSON stream: " + e.getMessage());
+            throw new RuntimeException(e);
+        } finally {
+            // Includes the time spent in the action, as the page is parsed while it is consumed.
+            sample.stop(readResultsTimer);
         }
+        return next;
+    }
+
+    private Timer parseTimer(String method, Class<?> type) {
+        return Timer.builder("literalura.json.parse")
+                .description("Time spent deserializing API responses")
+                .tag("method", method)
+                .tag("type", type.getSimpleName())
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.event.DownloadCountsChangedEvent;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Service class that keeps the most downloaded books ranked in memory, overall, per language
+ * and per author. Each ranking is a sorted set bounded to {@code literalura.leaderboard.capacity}
+ * entries and updated as books are saved, so a top-N read never sorts the books table. The rankings
+ * are loaded at startup, or by the first read when the startup warm-up is off ({@link StartupWarmUp}).
+ * <p>
+ * A refreshed download count ({@link DownloadCountsChangedEvent}) moves the book within its
+ * rankings. When a book falls to the last place of a full ranking, or out of it, a book that was
+ * not kept may now belong there, so that ranking alone is reloaded from the database.
+ */
+@Service
+public class DownloadLeaderboard {
+    // Most downloads first; the id breaks ties so distinct books never compare as equal.
+    private static final Comparator<RankedBookDTO> BY_DOWNLOADS =
+            Comparator.comparing(RankedBookDTO::downloadCount, Comparator.reverseOrder())
+                    .thenComparing(RankedBookDTO::bookId);
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    // Events are ignored until the rankings are first loaded.
+    private volatile boolean loaded;
+    private final Board overall;
+    private final Map<String, Board> byLanguage = new ConcurrentHashMap<>();
+    private final Map<Long, Board> byAuthor = new ConcurrentHashMap<>();
+
+    public DownloadLeaderboard(BookRepository bookRepository, TransactionTemplate transactionTemplate,
+                               @Value("${literalura.leaderboard.capacity}") int capacity) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.overall = new Board(capacity);
+    }
+
+    /**
+     * Rebuilds every ranking from the database in a single streaming pass.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        overall.clear();
+        byLanguage.clear();
+        byAuthor.clear();
+        try (Stream<RankedBookDTO> books = bookRepository.streamRanked()) {
+            books.forEach(this::offer);
+        }
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    transactionTemplate.executeWithoutResult(status -> rebuild());
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookSaved(BookSavedEvent event) {
+        if (loaded && event.downloadCount() != null) {
+            offer(new RankedBookDTO(event.bookId(), event.title(), event.authorId(), event.authorName(),
+                    event.language(), event.downloadCount()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDownloadCountsChanged(DownloadCountsChangedEvent event) {
+        if (!loaded) {
+            return; // The first load reads the new counts.
+        }
+        // Only books with an author are ranked, as in the rebuild.
+        Set<String> staleLanguages = new LinkedHashSet<>();
+        Set<Long> staleAuthors = new LinkedHashSet<>();
+        boolean overallStale = false;
+        for (DownloadCountsChangedEvent.Change change : event.changes()) {
+            if (change.authorId() == null) {
+                continue;
+            }
+            RankedBookDTO previous = change.previous() == null ? null : new RankedBookDTO(change.bookId(), change.title(),
+                    change.authorId(), change.authorName(), change.language(), change.previous());
+            RankedBookDTO current = new RankedBookDTO(change.bookId(), change.title(),
+                    change.authorId(), change.authorName(), change.language(), change.current());
+            overallStale |= overall.replace(previous, current);
+            if (change.language() != null && board(byLanguage, change.language()).replace(previous, current)) {
+                staleLanguages.add(change.language());
+            }
+            if (board(byAuthor, change.authorId()).replace(previous, current)) {
+                staleAuthors.add(change.authorId());
+            }
+        }
+        // The event arrives after the commit, so the queries see the new counts.
+        if (overallStale) {
+            overall.reload(bookRepository.findRanked(Limit.of(capacity)));
+        }
+        staleLanguages.forEach(language -> byLanguage.get(language).reload(bookRepository.findRankedByLanguage(language, Limit.of(capacity))));
+        staleAuthors.forEach(authorId -> byAuthor.get(authorId).reload(bookRepository.findRankedByAuthor(authorId, Limit.of(capacity))));
+    }
+
+    /**
+     * Returns the most downloaded books of the catalog.
+     *
+     * @param n How many books to return; at most the configured capacity.
+     * @return Up to n books, most downloaded first.
+     */
+    public List<RankedBookDTO> top(int n) {
+        ensureLoaded();
+        return overall.top(n);
+    }
+
+    /**
+     * Returns the most downloaded books in a language.
+     *
+     * @param language The language code (e.g. "pt").
+     * @param n        How many books to return; at most the configured capacity.
+     * @return Up to n books in the language, most downloaded first.
+     */
+    public List<RankedBookDTO> topByLanguage(String language, int n) {
+        ensureLoaded();
+        Board board = byLanguage.get(language);
+        return board == null ? List.of() : board.top(n);
+    }
+
+    /**
+     * Returns the most downloaded books of an author.
+     *
+     * @param authorId The id of the author.
+     * @param n        How many books to return; at most the configured capacity.
+     * @return Up to n books of the author, most downloaded first.
+     */
+    public List<RankedBookDTO> topByAuthor(Long authorId, int n) {
+        ensureLoaded();
+        Board board = byAuthor.get(authorId);
+        return board == null ? List.of() : board.top(n);
+    }
+
+    /**
+     * The largest N that can be answered exactly.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    private void offer(RankedBookDTO book) {
+        overall.offer(book);
+        if (book.language() != null) {
+            board(byLanguage, book.language()).offer(book);
+        }
+        if (book.authorId() != null) {
+            board(byAuthor, book.authorId()).offer(book);
+        }
+    }
+
+    private <K> Board board(Map<K, Board> boards, K key) {
+        return boards.computeIfAbsent(key, k -> new Board(capacity));
+    }
+
+    /**
+     * One bounded ranking. Writes are serialized by the enclosing service; reads iterate the
+     * concurrent set without locking.
+     */
+    private static final class Board {
+        private final ConcurrentSkipListSet<RankedBookDTO> entries = new ConcurrentSkipListSet<>(BY_DOWNLOADS);
+        private final int capacity;
+
+        Board(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(RankedBookDTO book) {
+            if (entries.size() >= capacity && BY_DOWNLOADS.compare(book, entries.last()) > 0) {
+                return; // Not better than the current last place.
+            }
+            entries.add(book);
+            if (entries.size() > capacity) {
+                entries.pollLast();
+            }
+        }
+
+        /**
+         * Moves a book to its new download count.
+         *
+         * @param previous The book with its old count, or null if it had none.
+         * @param current  The book with its new count.
+         * @return Whether a book that is not kept may now rank above the moved one, so the board
+         *         must be reloaded to be exact.
+         */
+        boolean replace(RankedBookDTO previous, RankedBookDTO current) {
+            boolean wasFull = entries.size() >= capacity;
+            boolean removed = previous != null && entries.remove(previous);
+            offer(current);
+            // A kept book that dropped to the last place (or out) of a full board.
+            return removed && wasFull && (!entries.contains(current) || entries.last().equals(current));
+        }
+
+        /**
+         * Replaces the entries with the given ones without ever exposing a partial board: the new
+         * entries are added before the others are removed.
+         */
+        void reload(List<RankedBookDTO> books) {
+            entries.addAll(books);
+            entries.retainAll(new HashSet<>(books));
+            while (entries.size() > capacity) {
+                entries.pollLast();
+            }
+        }
+
+        List<RankedBookDTO> top(int n) {
+            return entries.stream().limit(Math.min(n, capacity)).toList();
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.event.DownloadCountsChangedEvent;
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import io.github.andreteixeir.literalura.repository.IngestionCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for bringing the stored download counts up to date with Gutendex,
+ * without importing the catalog again.
+ * <p>
+ * The books with a Gutendex id are walked in id order, {@code literalura.refresh.batch-size} at a
+ * time after the last id committed (keyset pagination). Their current counts are fetched with
+ * {@code ?ids=} requests of up to {@code literalura.refresh.ids-per-request} books each, sent
+ * concurrently through {@link FetchScheduler}, and only the rows whose count changed are written,
+ * as one JDBC batch. Each batch commits together with an {@link IngestionCheckpoint} holding its
+ * last id, so an interrupted refresh resumes after the last committed batch, and publishes a
+ * {@link DownloadCountsChangedEvent} for the in-memory views.
+ * <p>
+ * Runs on the {@code literalura.refresh.cron} schedule ("-" disables it) or on demand.
+ */
+@Service
+public class DownloadRefreshService {
+    public static final String CHECKPOINT_NAME = "download-refresh";
+
+    private final FetchScheduler scheduler;
+    private final IDataConverter converter;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String baseUrl;
+    private final int batchSize;
+    private final int idsPerRequest;
+    private final Timer batchTimer;
+    private final Counter rowsChecked;
+    private final Counter rowsUpdated;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public DownloadRefreshService(FetchScheduler scheduler,
+                                  IDataConverter converter,
+                                  JdbcTemplate jdbcTemplate,
+                                  EntityManager entityManager,
+                                  IngestionCheckpointRepository checkpointRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${literalura.gutendex.base-url}") String baseUrl,
+                                  @Value("${literalura.refresh.batch-size}") int batchSize,
+                                  @Value("${literalura.refresh.ids-per-request}") int idsPerRequest,
+                                  MeterRegistry meterRegistry) {
+        this.scheduler = scheduler;
+        this.converter = converter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.baseUrl = baseUrl;
+        this.batchSize = batchSize;
+        this.idsPerRequest = idsPerRequest;
+        this.batchTimer = Timer.builder("literalura.refresh.batch")
+                .description("Time to fetch, compare and commit one batch of the download refresh")
+                .register(meterRegistry);
+        this.rowsChecked = rowsCounter(meterRegistry, "checked");
+        this.rowsUpdated = rowsCounter(meterRegistry, "updated");
+    }
+
+    private static Counter rowsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("literalura.refresh.rows")
+                .description("Books compared with Gutendex by the download refresh, and those updated")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Summary of a refresh run.
+     *
+     * @param batches Number of batches committed during this run.
+     * @param checked Number of books compared with Gutendex.
+     * @param updated Number of books whose download count changed.
+     * @param elapsed Wall-clock duration of the run.
+     * @param resumed Whether the run continued a previously interrupted refresh.
+     */
+    public record Report(int batches, long checked, long updated, Duration elapsed, boolean resumed) {
+        public double checkedPerSecond() {
+            return perSecond(checked);
+        }
+
+        public double updatedPerSecond() {
+            return perSecond(updated);
+        }
+
+        private double perSecond(long rows) {
+            double seconds = elapsed.toNanos() / 1_000_000_000.0;
+            return seconds > 0 ? rows / seconds : 0.0;
+        }
+    }
+
+    /**
+     * A stored book as read by the walk.
+     */
+    private record StoredBook(long id, int gutendexId, String title, String language, Long authorId,
+                              String authorName, Double downloadCount) {}
+
+    @Scheduled(cron = "${literalura.refresh.cron}")
+    public void scheduledRefresh() {
+        try {
+            Report report = refresh();
+            System.out.printf("Atualização de downloads concluída: %d livros verificados, %d alterados%n",
+                    report.checked(), report.updated());
+        } catch (OperationAlreadyRunningException e) {
+            System.err.println("Scheduled download refresh skipped: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Scheduled download refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares every book that has a Gutendex id with its current download count and stores the
+     * ones that changed, starting after the last committed batch when a previous run was
+     * interrupted, or from the first book otherwise.
+     *
+     * @return A report with the books checked and updated and the achieved throughput.
+     * @throws OperationAlreadyRunningException If another refresh is already running.
+     */
+    public Report refresh() {
+        // The schedule and the console can both start a refresh; only one may run at a time.
+        if (!running.compareAndSet(false, true)) {
+            throw new OperationAlreadyRunningException("A download refresh is already running");
+        }
+        try {
+            return runRefresh();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Whether a refresh is currently running.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private Report runRefresh() {
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .filter(c -> !c.getCompleted() && c.getWatermark() != null)
+                .orElseGet(() -> {
+                    IngestionCheckpoint fresh = new IngestionCheckpoint(CHECKPOINT_NAME, null);
+                    fresh.setWatermark(0L);
+                    return fresh;
+                });
+        long watermark = checkpoint.getWatermark();
+        boolean resumed = checkpoint.getPagesCommitted() > 0;
+        if (resumed) {
+            System.out.println("Retomando atualização de downloads após o livro " + watermark + "...");
+        } else {
+            // A fresh run replaces the checkpoint of an already completed refresh.
+            checkpointRepository.save(checkpoint);
+        }
+
+        long start = System.nanoTime();
+        int batches = 0;
+        long checked = 0;
+        long updated = 0;
+        List<StoredBook> books;
+        while (!(books = nextBatch(watermark)).isEmpty()) {
+            List<StoredBook> batch = books;
+            long lastId = batch.getLast().id();
+            int changed = batchTimer.record(() -> {
+                Map<Integer, Double> current = fetchCounts(batch);
+                List<DownloadCountsChangedEvent.Change> changes = new ArrayList<>();
+                for (StoredBook book : batch) {
+                    Double count = current.get(book.gutendexId());
+                    // A book missing from the response keeps its count.
+                    if (count != null && !Objects.equals(count, book.downloadCount())) {
+                        changes.add(new DownloadCountsChangedEvent.Change(book.id(), book.title(), book.language(),
+                                book.authorId(), book.authorName(), book.downloadCount(), count));
+                    }
+                }
+                transactionTemplate.executeWithoutResult(status -> saveBatch(changes, lastId));
+                return changes.size();
+            });
+            // Counted once the batch is committed.
+            rowsChecked.increment(batch.size());
+            rowsUpdated.increment(changed);
+            batches++;
+            checked += batch.size();
+            updated += changed;
+            watermark = lastId;
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf("Lote %d atualizado: %d de %d livros alterados (%.1f livros verificados/s)%n",
+                    checkpoint.getPagesCommitted() + batches, changed, batch.size(), checked / seconds);
+        }
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.findById(CHECKPOINT_NAME).ifPresent(c -> {
+            c.setCompleted(true);
+            c.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(c);
+        }));
+        return new Report(batches, checked, updated, Duration.ofNanos(System.nanoTime() - start), resumed);
+    }
+
+    // The next books after the watermark, through the primary key index.
+    private List<StoredBook> nextBatch(long afterId) {
+        return jdbcTemplate.query("""
+                SELECT b.id, b.gutendex_id, b.title, b.language, b.download_count, a.id AS author_id, a.name AS author_name
+                FROM books b LEFT JOIN authors a ON a.id = b.author_id
+                WHERE b.id > ? AND b.gutendex_id IS NOT NULL
+                ORDER BY b.id
+                LIMIT ?
+                """, (rs, row) -> new StoredBook(rs.getLong("id"), rs.getInt("gutendex_id"), rs.getString("title"),
+                rs.getString("language"), rs.getObject("author_id", Long.class), rs.getString("author_name"),
+                rs.getObject("download_count", Double.class)), afterId, batchSize);
+    }
+
+    /**
+     * Fetches the current download counts of a batch, one {@code ?ids=} request per group of
+     * books, all groups at once; the scheduler keeps them within the rate limit.
+     *
+     * @return The download count of each Gutendex id found.
+     */
+    private Map<Integer, Double> fetchCounts(List<StoredBook> books) {
+        List<String> urls = new ArrayList<>();
+        for (int from = 0; from < books.size(); from += idsPerRequest) {
+            urls.add(baseUrl + "?ids=" + books.subList(from, Math.min(books.size(), from + idsPerRequest)).stream()
+                    .map(b -> String.valueOf(b.gutendexId()))
+                    .collect(Collectors.joining(",")));
+        }
+        Map<Integer, Double> counts = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<Integer, Double>>> responses = urls.stream()
+                    .map(url -> executor.submit(() -> fetchGroup(url)))
+                    .toList();
+            for (Future<Map<Integer, Double>> response : responses) {
+                counts.putAll(response.get());
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Download refresh was interrupted: " + e.getMessage());
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        return counts;
+    }
+
+    // Follows "next" as well, in case the API pages the group.
+    private Map<Integer, Double> fetchGroup(String url) {
+        Map<Integer, Double> counts = new HashMap<>();
+        while (url != null) {
+            url = converter.readResults(new ByteArrayInputStream(scheduler.fetch(url)), book -> {
+                if (book.id() != null && book.downloadCount() != null) {
+                    counts.put(book.id(), book.downloadCount());
+                }
+            });
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the changed counts and advances the checkpoint in the same transaction.
+     *
+     * @param changes The books whose count changed.
+     * @param lastId  The id of the last book of the batch, changed or not.
+     */
+    private void saveBatch(List<DownloadCountsChangedEvent.Change> changes, long lastId) {
+        if (!changes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE books SET download_count = ? WHERE id = ?",
+                    changes.stream().map(c -> new Object[]{c.current(), c.bookId()}).toList(),
+                    new int[]{Types.DOUBLE, Types.BIGINT});
+            // As in BookUpsertService: cached Book entities and query results over books are discarded.
+            BulkOperationCleanupAction.schedule(entityManager.unwrap(SessionImplementor.class), Set.of("books"));
+            // Listeners receive it only after the commit.
+            eventPublisher.publishEvent(new DownloadCountsChangedEvent(List.copyOf(changes)));
+        }
+
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> new IngestionCheckpoint(CHECKPOINT_NAME, null));
+        checkpoint.setWatermark(lastId);
+        // For this job: batches committed and books updated.
+        checkpoint.setPagesCommitted(checkpoint.getPagesCommitted() + 1);
+        checkpoint.setBooksSaved(checkpoint.getBooksSaved() + changes.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+}
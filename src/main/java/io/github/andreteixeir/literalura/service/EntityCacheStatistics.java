@@ -0,0 +1,48 @@
+package io.github.andreteixeir.literalura.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class that reports the hit ratios of the Hibernate second-level (entity and collection)
+ * cache and of the query cache since startup. The same counters are published as the
+ * {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests} metrics.
+ */
+@Service
+public class EntityCacheStatistics {
+    private final Statistics statistics;
+
+    /**
+     * Hits and misses of one cache.
+     */
+    public record Ratio(long hits, long misses) {
+        /**
+         * The fraction of lookups answered by the cache, or 0 before the first lookup.
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * @param entities Lookups of Book/Author entities and collections by id.
+     * @param queries  Lookups of cached repository query results.
+     */
+    public record Report(Ratio entities, Ratio queries) {}
+
+    public EntityCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Returns the current hit and miss counts of both caches.
+     */
+    public Report report() {
+        return new Report(
+                new Ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                new Ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class that paces the requests of the catalog crawl before they reach {@link ApiConsumer}.
+ * <ul>
+ *     <li>A token bucket limits the request rate ({@code literalura.fetch.rate} per second, with
+ *     bursts of up to {@code literalura.fetch.burst}).</li>
+ *     <li>At most {@code literalura.fetch.max-in-flight} requests are sent at the same time.</li>
+ *     <li>429 and 5xx responses and I/O errors are retried with jittered exponential backoff,
+ *     up to {@code literalura.fetch.max-attempts} attempts. A {@code Retry-After} header
+ *     replaces the backoff and pauses every caller, since the throttling applies to all of them.</li>
+ * </ul>
+ */
+@Component
+public class FetchScheduler {
+    private final ApiConsumer consumer;
+    private final TokenBucket bucket;
+    private final Semaphore inFlight;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public FetchScheduler(ApiConsumer consumer,
+                          @Value("${literalura.fetch.rate}") double rate,
+                          @Value("${literalura.fetch.burst}") int burst,
+                          @Value("${literalura.fetch.max-in-flight}") int maxInFlight,
+                          @Value("${literalura.fetch.max-attempts}") int maxAttempts,
+                          @Value("${literalura.fetch.initial-backoff}") Duration initialBackoff,
+                          @Value("${literalura.fetch.max-backoff}") Duration maxBackoff,
+                          MeterRegistry meterRegistry) {
+        this.consumer = consumer;
+        this.bucket = new TokenBucket(rate, burst);
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Fetches a URL within the configured rate, retrying throttled and failed requests.
+     * Blocks while the rate limit or the in-flight cap is reached, which slows the caller down.
+     *
+     * @param url The URL to fetch.
+     * @return The body of the successful (2xx) response.
+     * @throws RuntimeException If the response is another client error, or the request still
+     *                          fails after the last attempt.
+     */
+    public byte[] fetch(String url) {
+        for (int attempt = 1; ; attempt++) {
+            int failedAttempt = attempt;
+            HttpResponse<byte[]> response;
+            try {
+                response = send(url);
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof IOException) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                retryAfter(url, attempt, "io", backoff(attempt));
+                continue;
+            }
+
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                return response.body();
+            }
+            if ((status != 429 && status < 500) || attempt >= maxAttempts) {
+                System.err.println("HTTP " + status + " from " + url + " (attempt " + attempt + "), giving up");
+                throw new RuntimeException("HTTP " + status + " fetching " + url);
+            }
+            Optional<Duration> retryAfter = retryAfterHeader(response);
+            retryAfter.ifPresent(bucket::pauseFor);
+            retryAfter(url, attempt, status == 429 ? "429" : "5xx", retryAfter.orElseGet(() -> backoff(failedAttempt)));
+        }
+    }
+
+    private HttpResponse<byte[]> send(String url) {
+        sleep(bucket.reserve());
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new RuntimeException(e);
+        }
+        try {
+            return consumer.fetchResponse(url, Map.of());
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void retryAfter(String url, int attempt, String reason, Duration delay) {
+        Counter.builder("literalura.fetch.retries")
+                .description("Requests retried by the fetch scheduler")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        System.err.println("Retrying " + url + " in " + delay.toMillis() + " ms (" + reason + ", attempt " + attempt + ")");
+        sleep(delay.toNanos());
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the delay is fixed and half is random,
+     * so retries never fire immediately but callers that failed together do not retry together.
+     */
+    Duration backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 30));
+        long half = ceiling / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    /**
+     * Reads a Retry-After header given either in seconds or as an HTTP date.
+     */
+    static Optional<Duration> retryAfterHeader(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration until = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return Optional.of(until.isNegative() ? Duration.ZERO : until);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Token bucket refilled continuously at a fixed rate. A caller that finds it empty reserves
+     * a future token (the balance goes negative) and sleeps outside the lock until it is due.
+     */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        // Time up to which the balance is computed; later than now while paused.
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double ratePerSecond, int burst) {
+            this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes one token.
+         *
+         * @return How long the caller must wait before sending, in nanoseconds.
+         */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+            tokens -= 1;
+            long due = tokens >= 0 ? refilledAt : refilledAt + (long) Math.ceil(-tokens / tokensPerNano);
+            return Math.max(0, due - now);
+        }
+
+        /**
+         * Stops handing out tokens for a while; afterwards a single request may go at once and
+         * the rest follow at the normal rate instead of as a burst.
+         */
+        synchronized void pauseFor(Duration delay) {
+            long until = System.nanoTime() + delay.toNanos();
+            if (until > refilledAt) {
+                reserve(); // Brings the balance up to date before moving the clock.
+                tokens = Math.min(tokens + 1, 1);
+                refilledAt = until;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.config.StartupWarmUp;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.event.GutendexIdsTaggedEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Service class that keeps the Gutendex ids of the stored books in memory as a bitmap, so bulk
+ * imports drop the books already registered before touching the database.
+ * <p>
+ * Gutendex ids are small and dense (Project Gutenberg numbers its books from 1), so one bit per
+ * possible id takes about 10 KB for the whole catalog. The bitmap is loaded at startup (or by the
+ * first lookup when the startup warm-up is off, see {@link StartupWarmUp}) and an id
+ * is added once the transaction that saved its book commits, so a set bit always means the book
+ * is stored; an id not set yet is left to the unique index. Rows deleted outside the application
+ * are only forgotten by {@link #rebuild()}.
+ */
+@Service
+public class GutendexIdFilter {
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded by "this".
+    private final BitSet ids = new BitSet();
+    private boolean untaggedBooks;
+    // Events are ignored until the ids are first loaded.
+    private boolean loaded;
+
+    public GutendexIdFilter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reloads the ids from the database.
+     */
+    @EventListener(value = ApplicationStartedEvent.class, condition = StartupWarmUp.ENABLED)
+    public synchronized void rebuild() {
+        ids.clear();
+        jdbcTemplate.query("SELECT gutendex_id FROM books WHERE gutendex_id IS NOT NULL",
+                rs -> {
+                    ids.set(rs.getInt(1));
+                });
+        untaggedBooks = hasUntaggedRows();
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    private boolean hasUntaggedRows() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM books WHERE gutendex_id IS NULL)", Boolean.class));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookSaved(BookSavedEvent event) {
+        if (!loaded) {
+            return; // The first load reads the committed book.
+        }
+        if (event.gutendexId() == null) {
+            untaggedBooks = true;
+        } else if (event.gutendexId() >= 0) {
+            ids.set(event.gutendexId());
+        }
+    }
+
+    /**
+     * Adds the ids given to stored books, and checks whether any book is still untagged.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGutendexIdsTagged(GutendexIdsTaggedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        event.gutendexIds().forEach(ids::set);
+        if (untaggedBooks) {
+            untaggedBooks = hasUntaggedRows();
+        }
+    }
+
+    /**
+     * Whether a book with the given Gutendex id is stored.
+     */
+    public synchronized boolean contains(int gutendexId) {
+        ensureLoaded();
+        return gutendexId >= 0 && ids.get(gutendexId);
+    }
+
+    /**
+     * Returns which of the given ids belong to stored books, taking the lock once for the batch.
+     */
+    public synchronized Set<Integer> stored(Collection<Integer> gutendexIds) {
+        ensureLoaded();
+        Set<Integer> stored = new HashSet<>();
+        for (Integer id : gutendexIds) {
+            if (id != null && id >= 0 && ids.get(id)) {
+                stored.add(id);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Whether some stored book may still lack its Gutendex id (saved before it was recorded, or
+     * imported from an archive without it). Until a rebuild or a batch of tagged books finds
+     * none, new books are first matched against those rows.
+     */
+    public synchronized boolean hasUntaggedBooks() {
+        ensureLoaded();
+        return untaggedBooks;
+    }
+
+    /**
+     * Number of stored Gutendex ids.
+     */
+    public synchronized int size() {
+        ensureLoaded();
+        return ids.cardinality();
+    }
+}
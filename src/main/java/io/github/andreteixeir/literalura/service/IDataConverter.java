@@ -1,5 +1,10 @@
 package io.github.andreteixeir.literalura.service;
 
+import io.github.andreteixeir.literalura.dto.BookDTO;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
 /**
  * An interface for data conversion services.
  * Defines a contract for converting data (e.g., a JSON string) into a specific object type.
@@ -14,4 +19,25 @@ public interface IDataConverter {
      * @return An object of type T populated with data from the source string.
      */
     <T> T getData(String json, Class<T> clazz);
-}
\ No newline at end of file
+
+    /**
+     * Converts JSON read directly from a stream into an object of the specified class,
+     * without buffering the whole document into a String first. The stream is closed afterwards.
+     *
+     * @param json  The stream containing the JSON document.
+     * @param clazz The class of the target object.
+     * @param <T>   The generic type of the target object.
+     * @return An object of type T populated with data from the stream.
+     */
+    <T> T getData(InputStream json, Class<T> clazz);
+
+    /**
+     * Streams the "results" array of a Gutendex page, handing each book to the action as soon
+     * as it is parsed instead of materializing the whole list. The stream is closed afterwards.
+     *
+     * @param json   The stream containing a Gutendex page.
+     * @param action Receives every book of the page, in order.
+     * @return The "next" page link of the page, or null on the last page.
+     */
+    String readResults(InputStream json, Consumer<BookDTO> action);
+}
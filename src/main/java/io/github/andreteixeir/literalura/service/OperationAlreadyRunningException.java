@@ -0,0 +1,12 @@
+package io.github.andreteixeir.literalura.service;
+
+/**
+ * Thrown when a catalog import or a download refresh is requested while another one is still
+ * running. The REST API answers it with 409 Conflict.
+ */
+public class OperationAlreadyRunningException extends IllegalStateException {
+
+    public OperationAlreadyRunningException(String message) {
+        super(message);
+    }
+}
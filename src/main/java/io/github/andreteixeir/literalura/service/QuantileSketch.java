@@ -0,0 +1,125 @@
+package io.github.andreteixeir.literalura.service;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch for non-negative values with a bounded relative error.
+ * Values are counted in logarithmic buckets whose bounds grow by a factor of
+ * {@code (1 + accuracy) / (1 - accuracy)}, so any quantile is reported within
+ * {@code accuracy} of a value of the right rank. Two sketches with the same accuracy merge
+ * exactly by adding their bucket counts, which lets partial results computed in parallel
+ * be combined in any order.
+ */
+public final class QuantileSketch {
+    private final double gamma;
+    private final double logGamma;
+    private long zeroCount;
+    // counts[i] is the number of values in bucket (offset + i).
+    private long[] counts = new long[0];
+    private int offset;
+    private long count;
+
+    /**
+     * @param accuracy The relative error of the reported quantiles, between 0 and 1 (e.g. 0.01).
+     */
+    public QuantileSketch(double accuracy) {
+        if (!(accuracy > 0 && accuracy < 1)) {
+            throw new IllegalArgumentException("accuracy must be between 0 and 1: " + accuracy);
+        }
+        this.gamma = (1 + accuracy) / (1 - accuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Adds one value.
+     *
+     * @throws IllegalArgumentException If the value is negative or NaN.
+     */
+    public void add(double value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("value must be non-negative: " + value);
+        }
+        count++;
+        if (value == 0) {
+            zeroCount++;
+            return;
+        }
+        int bucket = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureBucket(bucket);
+        counts[bucket - offset]++;
+    }
+
+    /**
+     * Adds every value counted by another sketch to this one.
+     *
+     * @throws IllegalArgumentException If the sketches were created with different accuracies.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracies");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+        if (other.counts.length == 0) {
+            return;
+        }
+        ensureBucket(other.offset);
+        ensureBucket(other.offset + other.counts.length - 1);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[other.offset + i - offset] += other.counts[i];
+        }
+    }
+
+    /**
+     * The number of values added.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param q The quantile, between 0 and 1 (0.5 for the median).
+     * @return The estimated value, or NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("q must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Middle of the bucket (gamma^(k-1), gamma^k], in relative terms.
+                return 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+            }
+        }
+        throw new IllegalStateException("Bucket counts do not add up to " + count);
+    }
+
+    private void ensureBucket(int bucket) {
+        if (counts.length == 0) {
+            counts = new long[8];
+            offset = bucket;
+        } else if (bucket < offset) {
+            int grow = Math.max(offset - bucket, counts.length / 2);
+            long[] grown = new long[counts.length + grow];
+            System.arraycopy(counts, 0, grown, grow, counts.length);
+            counts = grown;
+            offset -= grow;
+        } else if (bucket >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket - offset + 1, counts.length + counts.length / 2));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Caching layer in front of {@link ApiConsumer} for repeated Gutendex lookups.
+ * Responses are kept in a size-bounded in-memory tier (Caffeine, W-TinyLFU eviction) and,
+ * when a directory is configured, in a file-backed tier that survives restarts.
+ * Entries older than the TTL are revalidated with the server's ETag / Last-Modified,
+ * so an unchanged response costs a 304 instead of a full download.
+ */
+@Component
+public class ResponseCache {
+    private final ApiConsumer consumer;
+    private final Duration ttl;
+    private final Path diskDirectory;
+    private final Cache<String, CachedResponse> memory;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+
+    /**
+     * A cached response body together with the validators needed to revalidate it.
+     */
+    record CachedResponse(byte[] body, String etag, String lastModified, long fetchedAtMillis) {}
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param hits          Lookups answered from a fresh entry without contacting the server.
+     * @param misses        Lookups that needed a full download.
+     * @param revalidations Stale entries confirmed unchanged by the server (HTTP 304).
+     * @param diskHits      Entries loaded from the file-backed tier.
+     * @param evictions     Entries evicted from the in-memory tier to respect the size bound.
+     * @param entries       Entries currently held in memory.
+     */
+    public record Stats(long hits, long misses, long revalidations, long diskHits, long evictions, long entries) {
+        public double hitRatio() {
+            long lookups = hits + revalidations + misses;
+            return lookups == 0 ? 0.0 : (double) (hits + revalidations) / lookups;
+        }
+    }
+
+    public ResponseCache(ApiConsumer consumer,
+                         @Value("${literalura.cache.ttl}") Duration ttl,
+                         @Value("${literalura.cache.max-size}") DataSize maxSize,
+                         @Value("${literalura.cache.disk-directory:}") String diskDirectory,
+                         MeterRegistry meterRegistry) {
+        this.consumer = consumer;
+        this.ttl = ttl;
+        this.diskDirectory = diskDirectory.isBlank() ? null : Path.of(diskDirectory);
+        // Weighted by body size, so the bound is in bytes rather than in number of entries.
+        // Maintenance runs on the caller thread, which keeps eviction counts deterministic.
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String url, CachedResponse response) -> url.length() * 2 + response.body().length)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        // Size and eviction metrics of the memory tier, plus the outcome of every lookup.
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "gutendex-responses");
+        registerLookupCounter(meterRegistry, "hit", hits);
+        registerLookupCounter(meterRegistry, "miss", misses);
+        registerLookupCounter(meterRegistry, "revalidated", revalidations);
+        FunctionCounter.builder("literalura.cache.disk.hits", diskHits, LongAdder::sum)
+                .description("Responses loaded from the file-backed cache tier")
+                .register(meterRegistry);
+    }
+
+    private static void registerLookupCounter(MeterRegistry meterRegistry, String result, LongAdder counter) {
+        FunctionCounter.builder("literalura.cache.lookups", counter, LongAdder::sum)
+                .description("Gutendex response cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches data from the specified URL, serving it from the cache when possible.
+     *
+     * @param url The URL of the API endpoint to fetch data from.
+     * @return A String containing the body of the HTTP response, typically a JSON.
+     * @throws RuntimeException If the server answers with a status other than 200 or 304.
+     */
+    public String fetchData(String url) {
+        return new String(fetch(url), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fetches data from the specified URL as a stream, serving it from the cache when possible.
+     *
+     * @param url The URL of the API endpoint to fetch data from.
+     * @return An InputStream over the (possibly cached) body.
+     * @throws RuntimeException If the server answers with a status other than 200 or 304.
+     */
+    public InputStream fetchStream(String url) {
+        return new ByteArrayInputStream(fetch(url));
+    }
+
+    /**
+     * Returns the current cache counters.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), revalidations.sum(), diskHits.sum(),
+                memory.stats().evictionCount(), memory.estimatedSize());
+    }
+
+    private byte[] fetch(String url) {
+        String key = normalize(url);
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached == null && diskDirectory != null) {
+            cached = readFromDisk(key);
+            if (cached != null) {
+                diskHits.increment();
+                memory.put(key, cached);
+            }
+        }
+
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAtMillis() < ttl.toMillis()) {
+            hits.increment();
+            return cached.body();
+        }
+
+        // Stale or missing: ask the server, revalidating when we hold validators.
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null && cached.etag() != null) {
+            headers.put("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            headers.put("If-Modified-Since", cached.lastModified());
+        }
+        HttpResponse<byte[]> response = consumer.fetchResponse(url, headers);
+
+        if (response.statusCode() == 304 && cached != null) {
+            revalidations.increment();
+            store(key, new CachedResponse(cached.body(), cached.etag(), cached.lastModified(), System.currentTimeMillis()));
+            return cached.body();
+        }
+        if (response.statusCode() != 200) {
+            // Error pages are neither cached nor handed to the parser.
+            System.err.println("HTTP " + response.statusCode() + " from " + url);
+            throw new RuntimeException("HTTP " + response.statusCode() + " fetching " + url);
+        }
+        misses.increment();
+        store(key, new CachedResponse(response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                System.currentTimeMillis()));
+        return response.body();
+    }
+
+    private void store(String key, CachedResponse response) {
+        memory.put(key, response);
+        if (diskDirectory != null) {
+            writeToDisk(key, response);
+        }
+    }
+
+    /**
+     * Normalizes a URL so equivalent lookups share one entry: lower-case scheme and host,
+     * no default port or fragment, and query parameters in a stable order.
+     *
+     * @param url The URL to normalize.
+     * @return The cache key for the URL.
+     */
+    static String normalize(String url) {
+        URI uri = URI.create(url.trim());
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String query = uri.getRawQuery() == null ? "" : Arrays.stream(uri.getRawQuery().split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .sorted()
+                .collect(Collectors.joining("&", "?", ""));
+        return scheme + "://" + host + (defaultPort ? "" : ":" + port) + path + query;
+    }
+
+    private Path diskPath(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return diskDirectory.resolve(HexFormat.of().formatHex(digest) + ".cache");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CachedResponse readFromDisk(String key) {
+        Path file = diskPath(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            // The key is stored too, so a hash collision is treated as a miss.
+            if (!key.equals(in.readUTF())) {
+                return null;
+            }
+            String etag = in.readBoolean() ? in.readUTF() : null;
+            String lastModified = in.readBoolean() ? in.readUTF() : null;
+            long fetchedAt = in.readLong();
+            byte[] body = in.readNBytes(in.readInt());
+            return new CachedResponse(body, etag, lastModified, fetchedAt);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CachedResponse response) {
+        Path file = diskPath(key);
+        try {
+            Files.createDirectories(diskDirectory);
+            // Write to a temporary file first so readers never observe a half-written entry.
+            Path temporary = Files.createTempFile(diskDirectory, "entry", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+                out.writeUTF(key);
+                out.writeBoolean(response.etag() != null);
+                if (response.etag() != null) {
+                    out.writeUTF(response.etag());
+                }
+                out.writeBoolean(response.lastModified() != null);
+                if (response.lastModified() != null) {
+                    out.writeUTF(response.lastModified());
+                }
+                out.writeLong(response.fetchedAtMillis());
+                out.writeInt(response.body().length);
+                out.write(response.body());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk tier is best-effort; the in-memory entry is still valid.
+            System.err.println("Could not write cache file " + file + ": " + e.getMessage());
+        }
+    }
+}
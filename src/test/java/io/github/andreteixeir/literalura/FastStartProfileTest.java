@@ -0,0 +1,77 @@
+package io.github.andreteixeir.literalura;
+
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.BookUpsertService;
+import io.github.andreteixeir.literalura.service.CatalogArchiveService;
+import io.github.andreteixeir.literalura.service.CatalogSnapshot;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import io.github.andreteixeir.literalura.service.GutendexIdFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The in-memory H2 database starts empty, so the schema is still created here. Without JDBC
+// metadata, Hibernate picks the dialect from the database name and version.
+@SpringBootTest(properties = {"spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.jakarta.persistence.database-product-name=H2",
+        "spring.jpa.properties.jakarta.persistence.database-major-version=2",
+        "spring.jpa.properties.jakarta.persistence.database-minor-version=3"})
+@ActiveProfiles({"test", "fast-start"})
+class FastStartProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void startsWithoutTheWebServerAndCreatesBeansOnFirstUse() {
+        assertFalse(context instanceof WebApplicationContext);
+        assertFalse(beanFactory.containsSingleton("catalogArchiveService"));
+
+        assertNotNull(context.getBean(CatalogArchiveService.class));
+        assertTrue(beanFactory.containsSingleton("catalogArchiveService"));
+        assertEquals(0, bookRepository.count());
+    }
+
+    @AfterEach
+    void clearCatalog() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (String table : List.of("book_languages", "book_authors", "books", "authors")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void loadsTheInMemoryViewsOnFirstReadInsteadOfAtStartup() {
+        for (String view : List.of("catalogStatistics", "downloadLeaderboard", "authorLifespanIndex", "catalogSnapshot", "catalogSearchService")) {
+            assertFalse(beanFactory.containsSingleton(view), view);
+        }
+
+        // Saved before any view is read: the events are ignored and the first read loads the row.
+        context.getBean(BookUpsertService.class).upsert(List.of(new BookDTO(1342, "Pride and Prejudice",
+                List.of(new AuthorDTO("Austen, Jane", 1775, 1817)), List.of("en"), 50_000.0)));
+
+        assertEquals(1, context.getBean(CatalogStatistics.class).snapshot().bookCount());
+        assertEquals(1, context.getBean(DownloadLeaderboard.class).top(10).size());
+        assertEquals(1, context.getBean(AuthorLifespanIndex.class).aliveIn(1800).length);
+        assertEquals(1, context.getBean(CatalogSnapshot.class).countByLanguage("en"));
+        assertTrue(context.getBean(GutendexIdFilter.class).contains(1342));
+    }
+}
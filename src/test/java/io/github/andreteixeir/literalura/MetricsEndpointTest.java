@@ -0,0 +1,36 @@
+package io.github.andreteixeir.literalura;
+
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void prometheusEndpointExposesApplicationAndInfrastructureMetrics() {
+        bookRepository.count();
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertNotNull(scrape);
+        assertTrue(scrape.contains("literalura_cache_lookups_total"), "response cache counters");
+        assertTrue(scrape.contains("cache_gets_total{application=\"literalura\",cache=\"gutendex-responses\""), "Caffeine cache metrics");
+        assertTrue(scrape.contains("literalura_ingestion_rows_total"), "ingestion counters");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket"), "repository latency histogram");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "connection pool metrics");
+    }
+}
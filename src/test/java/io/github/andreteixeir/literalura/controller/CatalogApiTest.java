@@ -0,0 +1,186 @@
+package io.github.andreteixeir.literalura.controller;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.service.AuthorLifespanIndex;
+import io.github.andreteixeir.literalura.service.CatalogSnapshot;
+import io.github.andreteixeir.literalura.service.CatalogStatistics;
+import io.github.andreteixeir.literalura.service.DownloadLeaderboard;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogApiTest {
+
+    private static final HttpServer gutendex = startStubServer();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private DownloadLeaderboard leaderboard;
+    @Autowired
+    private AuthorLifespanIndex lifespanIndex;
+    @Autowired
+    private CatalogStatistics statistics;
+    @Autowired
+    private CatalogSnapshot snapshot;
+
+    @DynamicPropertySource
+    static void gutendexProperties(DynamicPropertyRegistry registry) {
+        registry.add("literalura.gutendex.base-url", () -> "http://localhost:" + gutendex.getAddress().getPort() + "/books/");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        gutendex.stop(0);
+    }
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        Author machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        bookRepository.save(new Book("Emma", "en", 5.0, austen));
+        bookRepository.save(new Book("Persuasion", "en", 1_500.0, austen));
+        bookRepository.save(new Book("Quincas Borba", "pt", 300.0, machado));
+        leaderboard.rebuild();
+        lifespanIndex.rebuild();
+        statistics.rebuild();
+        snapshot.refresh();
+    }
+
+    @Test
+    void booksArePagedWithCacheHeaders() throws Exception {
+        mockMvc.perform(get("/api/books").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, public"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].title").value("Emma"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        mockMvc.perform(get("/api/books").param("language", "PT"))
+                .andExpect(jsonPath("$.content[*].title", contains("Quincas Borba")))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void unchangedResponsesAreRevalidatedWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookCount").value(3))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/statistics").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void downloadStatisticsAreGrouped() throws Exception {
+        mockMvc.perform(get("/api/statistics/downloads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.en.books").value(2))
+                .andExpect(jsonPath("$.en.maxDownloads").value(1_500.0))
+                .andExpect(jsonPath("$.pt.averageDownloads").value(300.0));
+        mockMvc.perform(get("/api/statistics/downloads").param("by", "century"))
+                .andExpect(jsonPath("$.1700.totalDownloads").value(1_505.0))
+                .andExpect(jsonPath("$.1800.books").value(1));
+        mockMvc.perform(get("/api/statistics/downloads").param("by", "genre"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void authorsAreListedAndLookedUp() throws Exception {
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(jsonPath("$.content[0].name").value("Austen, Jane"))
+                .andExpect(jsonPath("$.content[0].books", containsInAnyOrder("Emma", "Persuasion")));
+
+        mockMvc.perform(get("/api/authors/alive").param("year", "1800").param("to", "1850"))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("Austen, Jane", "Machado de Assis")));
+        mockMvc.perform(get("/api/authors/alive").param("year", "1900").param("to", "1800"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/authors/search").param("name", "machado"))
+                .andExpect(jsonPath("$[0].books[0]").value("Quincas Borba"));
+    }
+
+    @Test
+    void topBooksComeFromTheLeaderboard() throws Exception {
+        mockMvc.perform(get("/api/books/top").param("n", "2"))
+                .andExpect(jsonPath("$[*].title", contains("Persuasion", "Quincas Borba")));
+        mockMvc.perform(get("/api/books/top").param("language", "en").param("n", "1"))
+                .andExpect(jsonPath("$[*].title", contains("Persuasion")));
+        mockMvc.perform(get("/api/books/top").param("n", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void registeringABookSearchesGutendex() throws Exception {
+        mockMvc.perform(post("/api/books").param("title", "dom casmurro"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("Dom Casmurro"))
+                .andExpect(jsonPath("$.authorName").value("Machado de Assis"));
+
+        mockMvc.perform(post("/api/books").param("title", "dom casmurro"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/books").param("title", "livro inexistente"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/books/top").param("authorId", String.valueOf(authorRepository.findByNameKey("machado de assis").orElseThrow().getId())))
+                .andExpect(jsonPath("$[0].title").value("Dom Casmurro"));
+    }
+
+    private static HttpServer startStubServer() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/books/", exchange -> {
+                boolean found = exchange.getRequestURI().getQuery().contains("casmurro");
+                String body = found ? """
+                        {"count": 1, "next": null, "results": [
+                          {"title": "Dom Casmurro", "authors": [{"name": "Machado de Assis", "birth_year": 1839, "death_year": 1908}],
+                           "languages": ["pt"], "download_count": 900}
+                        ]}
+                        """ : """
+                        {"count": 0, "next": null, "results": []}
+                        """;
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
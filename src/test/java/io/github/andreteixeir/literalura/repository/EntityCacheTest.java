@@ -0,0 +1,80 @@
+package io.github.andreteixeir.literalura.repository;
+
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.service.BookUpsertService;
+import io.github.andreteixeir.literalura.service.EntityCacheStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookUpsertService upsertService;
+    @Autowired
+    private EntityCacheStatistics cacheStatistics;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Author machado;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        bookRepository.save(new Book("Dom Casmurro", "pt", 900.0, machado));
+        bookRepository.save(new Book("Quincas Borba", "pt", 300.0, machado));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedListingsAreServedFromTheCache() {
+        bookRepository.findSummariesAfter(0L, Limit.of(100));
+        authorRepository.findWithBooksByIdIn(List.of(machado.getId()));
+        EntityCacheStatistics.Report before = cacheStatistics.report();
+        statistics.clear();
+
+        assertEquals(2, bookRepository.findSummariesAfter(0L, Limit.of(100)).size());
+        Author cached = authorRepository.findWithBooksByIdIn(List.of(machado.getId())).getFirst();
+
+        assertEquals(2, cached.getBooks().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(before.queries().hits() + 2, cacheStatistics.report().queries().hits());
+        assertTrue(cacheStatistics.report().queries().hitRatio() > 0);
+    }
+
+    @Test
+    void upsertedBooksInvalidateTheCachedResults() {
+        assertEquals(2, bookRepository.findSummariesByLanguageAfter("pt", 0L, Limit.of(100)).size());
+        assertEquals(2, authorRepository.findWithBooksByIdIn(List.of(machado.getId())).getFirst().getBooks().size());
+
+        upsertService.upsert(List.of(new BookDTO(null, "Memórias Póstumas de Brás Cubas",
+                List.of(new AuthorDTO("Machado de Assis", 1839, 1908)), List.of("pt"), 1200.0)));
+
+        List<BookSummaryDTO> books = bookRepository.findSummariesByLanguageAfter("pt", 0L, Limit.of(100));
+        assertEquals(3, books.size());
+        assertEquals(3, authorRepository.findWithBooksByIdIn(List.of(machado.getId())).getFirst().getBooks().size());
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.andreteixeir.literalura.repository;
+
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the listing read paths against N+1 queries: the number of SQL statements
+ * must not depend on how many authors and books are registered.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ListingQueryCountTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void authorListingPageUsesTwoQueries(int authors) {
+        seed(authors);
+        statistics.clear();
+
+        List<Long> ids = authorRepository.findPageAfter(0L, Limit.of(100)).stream().map(Author::getId).toList();
+        List<Author> found = authorRepository.findWithBooksByIdIn(ids);
+        int titles = found.stream().mapToInt(a -> a.getBooks().size()).sum();
+
+        assertEquals(authors, found.size());
+        assertEquals(authors * 2, titles);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void bookListingsUseOneQueryEach(int authors) {
+        seed(authors);
+
+        statistics.clear();
+        assertEquals(authors * 2, bookRepository.findSummariesAfter(0L, Limit.of(100)).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        bookRepository.findSummariesByLanguageAfter("pt", 0L, Limit.of(100)).forEach(b -> assertNotNull(b.authorName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        bookRepository.findTop10ByOrderByDownloadCountDesc().forEach(b -> assertNotNull(b.getAuthor().getName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(Math.min(10, authors * 2), bookRepository.findTop10Summaries().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void authorLookupLoadsBooksWithTheAuthor() {
+        seed(2);
+        statistics.clear();
+
+        Author author = authorRepository.findByNameKey("author 1").orElseThrow();
+
+        assertEquals(2, author.getBooks().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void seed(int authors) {
+        List<Author> savedAuthors = new ArrayList<>();
+        for (int i = 0; i < authors; i++) {
+            savedAuthors.add(new Author("Author " + i, 1800 + i, 1870 + i));
+        }
+        authorRepository.saveAll(savedAuthors);
+        List<Book> books = new ArrayList<>();
+        for (Author author : savedAuthors) {
+            books.add(new Book(author.getName() + " - First", "pt", 100.0 + books.size(), author));
+            books.add(new Book(author.getName() + " - Second", "en", 100.0 + books.size(), author));
+        }
+        bookRepository.saveAll(books);
+    }
+}
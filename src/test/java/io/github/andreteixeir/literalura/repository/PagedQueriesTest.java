@@ -0,0 +1,126 @@
+package io.github.andreteixeir.literalura.repository;
+
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.LanguageCountDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PagedQueriesTest {
+
+    private static final int BOOKS = 25;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author alive = authorRepository.save(new Author("Alive Author", 1800, 1880));
+        authorRepository.save(new Author("Later Author", 1900, 1950));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book("Book " + i, i % 2 == 0 ? "en" : "pt", (double) i, alive));
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @Test
+    void keysetPagesVisitEveryBookOnce() {
+        Set<Long> seen = new HashSet<>();
+        long lastId = 0;
+        List<BookSummaryDTO> page;
+        int pages = 0;
+        do {
+            page = bookRepository.findSummariesAfter(lastId, Limit.of(10));
+            page.forEach(b -> assertTrue(seen.add(b.id())));
+            if (!page.isEmpty()) {
+                lastId = page.getLast().id();
+            }
+            pages++;
+        } while (page.size() == 10);
+
+        assertEquals(BOOKS, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void keysetPagesFilterByLanguage() {
+        List<BookSummaryDTO> first = bookRepository.findSummariesByLanguageAfter("pt", 0L, Limit.of(5));
+        List<BookSummaryDTO> second = bookRepository.findSummariesByLanguageAfter("pt", first.getLast().id(), Limit.of(50));
+
+        assertEquals(5, first.size());
+        assertEquals(7, second.size());
+        assertTrue(Stream.concat(first.stream(), second.stream()).allMatch(b -> b.language().equals("pt")));
+    }
+
+    @Test
+    void multiLanguageBooksMatchEveryListedLanguage() {
+        Book bilingual = new Book("Bilingual", "en", 1.0, authorRepository.findAll().getFirst());
+        bilingual.getLanguages().add("fr");
+        bookRepository.save(bilingual);
+
+        List<BookSummaryDTO> anyOf = bookRepository.findSummariesByAnyLanguageAfter(List.of("fr", "pt"), 0L, Limit.of(50));
+        List<BookSummaryDTO> allOf = bookRepository.findSummariesByAllLanguagesAfter(List.of("en", "fr"), 2, 0L, Limit.of(50));
+
+        assertEquals(13, anyOf.size());
+        assertEquals(List.of("Bilingual"), allOf.stream().map(BookSummaryDTO::title).toList());
+        assertEquals(1, bookRepository.findByLanguage("fr").size());
+        assertTrue(bookRepository.findByPrimaryLanguage("fr").isEmpty());
+        assertEquals(Map.of("en", 14L, "fr", 1L, "pt", 12L), bookRepository.countByLanguage().stream()
+                .collect(Collectors.toMap(LanguageCountDTO::language, LanguageCountDTO::count)));
+    }
+
+    @Test
+    void slicesReportWhetherMoreRowsExist() {
+        Slice<BookSummaryDTO> first = bookRepository.findSummaries(PageRequest.of(0, 20));
+        Slice<BookSummaryDTO> last = bookRepository.findSummaries(PageRequest.of(1, 20));
+
+        assertTrue(first.hasNext());
+        assertFalse(last.hasNext());
+        assertEquals(5, last.getNumberOfElements());
+        assertEquals(1, authorRepository.findAuthorsAliveInYear(1850, PageRequest.of(0, 10)).getNumberOfElements());
+    }
+
+    @Test
+    void streamsReadTheWholeTableInsideATransaction() {
+        long streamed = transactionTemplate.execute(status -> {
+            try (Stream<Book> books = bookRepository.streamAll()) {
+                return books.count();
+            }
+        });
+        long english = transactionTemplate.execute(status -> {
+            try (Stream<Book> books = bookRepository.streamByLanguage("en")) {
+                return books.count();
+            }
+        });
+
+        assertEquals(BOOKS, streamed);
+        assertEquals(13, english);
+    }
+}
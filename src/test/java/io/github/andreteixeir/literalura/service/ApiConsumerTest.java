@@ -0,0 +1,129 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiConsumerTest {
+
+    private static final int MAX_CONCURRENCY = 8;
+    private static final int PAGES = 64;
+    private static final long LATENCY_MILLIS = 20;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ApiConsumer consumer;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        // Simulates a remote API with a fixed latency per request.
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/books/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = ("{\"page\": \"" + exchange.getRequestURI().getQuery() + "\"}").getBytes(StandardCharsets.UTF_8);
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.createContext("/missing/", exchange -> {
+            byte[] bytes = "<html>Not Found</html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        consumer = new ApiConsumer(Duration.ofSeconds(2), Duration.ofSeconds(5), MAX_CONCURRENCY, meterRegistry);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        consumer.close();
+        server.stop(0);
+    }
+
+    @Test
+    void fetchDataReturnsTheResponseBody() {
+        assertEquals("{\"page\": \"page=1\"}", consumer.fetchData(url(1)));
+    }
+
+    @Test
+    void fetchDataAsyncCompletesWithTheResponseBody() {
+        assertEquals("{\"page\": \"page=2\"}", consumer.fetchDataAsync(url(2)).join());
+    }
+
+    @Test
+    void fetchAllKeepsOrderAndBoundsConcurrency() {
+        List<String> urls = IntStream.rangeClosed(1, PAGES).mapToObj(this::url).toList();
+
+        List<String> bodies = consumer.fetchAll(urls);
+
+        assertEquals(PAGES, bodies.size());
+        for (int i = 0; i < PAGES; i++) {
+            assertEquals("{\"page\": \"page=" + (i + 1) + "\"}", bodies.get(i));
+        }
+        assertTrue(peakInFlight.get() <= MAX_CONCURRENCY, "peak in-flight requests: " + peakInFlight.get());
+    }
+
+    @Test
+    void fetchAllFailsWhenAnyRequestFails() {
+        server.stop(0);
+        assertThrows(RuntimeException.class, () -> consumer.fetchAll(List.of(url(1), url(2))));
+    }
+
+    @Test
+    void nonSuccessStatusesAreRejected() {
+        String missing = "http://localhost:" + server.getAddress().getPort() + "/missing/";
+
+        assertTrue(assertThrows(RuntimeException.class, () -> consumer.fetchData(missing)).getMessage().contains("404"));
+        assertThrows(RuntimeException.class, () -> consumer.fetchStream(missing));
+        assertThrows(CompletionException.class, () -> consumer.fetchDataAsync(missing).join());
+        assertThrows(RuntimeException.class, () -> consumer.fetchAll(List.of(url(1), missing)));
+    }
+
+    @Test
+    void requestsAreTimedByStatusWithTheirPayloadSize() {
+        String body = consumer.fetchData(url(3));
+        consumer.fetchDataAsync(url(4)).join();
+
+        assertEquals(2, meterRegistry.get("literalura.http.client.requests").tag("status", "200").tag("outcome", "SUCCESS").timer().count());
+        DistributionSummary sizes = meterRegistry.get("literalura.http.client.response.size").summary();
+        assertEquals(2, sizes.count());
+        assertEquals(body.length(), sizes.max());
+
+        server.stop(0);
+        assertThrows(RuntimeException.class, () -> consumer.fetchData(url(5)));
+        assertEquals(1, meterRegistry.get("literalura.http.client.requests").tag("status", "IO_ERROR").timer().count());
+    }
+
+    private String url(int page) {
+        return "http://localhost:" + server.getAddress().getPort() + "/books/?page=" + page;
+    }
+}
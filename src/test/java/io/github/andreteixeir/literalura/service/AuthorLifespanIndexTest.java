@@ -0,0 +1,98 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.event.AuthorSavedEvent;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthorLifespanIndexTest {
+
+    @Autowired
+    private AuthorLifespanIndex index;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Author austen;
+    private Author machado;
+    private Author living;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        living = authorRepository.save(new Author("Autor sem falecimento", 1950, null));
+        authorRepository.save(new Author("Autor sem datas", null, null));
+        index.rebuild();
+    }
+
+    @Test
+    void singleYearIncludesAuthorsWithoutADeathYear() {
+        assertArrayEquals(new long[]{austen.getId()}, index.aliveIn(1800));
+        assertArrayEquals(new long[]{machado.getId()}, index.aliveIn(1850));
+        assertArrayEquals(new long[]{living.getId()}, index.aliveIn(2000));
+        // The JPQL query drops the author with a null death year.
+        assertTrue(authorRepository.findAuthorsAliveInYear(2000).isEmpty());
+        // Open-ended lifespans stop at birth + max-lifespan (120 years).
+        assertEquals(0, index.aliveIn(2071).length);
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rangeReturnsEveryOverlappingLifespan() {
+        assertArrayEquals(sorted(austen.getId(), machado.getId()), index.aliveBetween(1810, 1840));
+        assertArrayEquals(sorted(machado.getId(), living.getId()), index.aliveBetween(1900, 1960));
+        assertEquals(0, index.aliveBetween(1700, 1774).length);
+        assertThrows(IllegalArgumentException.class, () -> index.aliveBetween(1900, 1800));
+    }
+
+    @Test
+    void savedAuthorsAreFoundWithoutARebuild() {
+        Author newAuthor = authorRepository.save(new Author("Assis, Machado de (irmão)", 1840, 1870));
+        eventPublisher.publishEvent(new AuthorSavedEvent(newAuthor.getId(), newAuthor.getName(), 1840, 1870));
+
+        assertArrayEquals(sorted(machado.getId(), newAuthor.getId()), index.aliveIn(1860));
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int birth = 1500 + random.nextInt(500);
+            Integer death = random.nextInt(10) == 0 ? null : birth + random.nextInt(100);
+            Author author = authorRepository.save(new Author("Autor " + i, birth, death));
+            eventPublisher.publishEvent(new AuthorSavedEvent(author.getId(), author.getName(), birth, death));
+        }
+        for (int year = 1500; year < 2150; year += 7) {
+            int from = year;
+            int to = year + random.nextInt(20);
+            long[] expected = authorRepository.findAll().stream()
+                    .filter(a -> a.getBirthYear() != null && a.getBirthYear() <= to
+                            && (a.getDeathYear() != null ? a.getDeathYear() : a.getBirthYear() + 120) >= from)
+                    .mapToLong(Author::getId).sorted().toArray();
+            assertArrayEquals(expected, index.aliveBetween(from, to), () -> "range " + from + "-" + to);
+        }
+    }
+
+    private static long[] sorted(long... ids) {
+        return LongStream.of(ids).sorted().toArray();
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookUpsertServiceTest {
+
+    @Autowired
+    private BookUpsertService upsertService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CatalogStatistics statistics;
+    @Autowired
+    private GutendexIdFilter idFilter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanDatabase() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        statistics.rebuild();
+        idFilter.rebuild();
+    }
+
+    @Test
+    void savesEveryAuthorAndSkipsExistingRows() {
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        bookRepository.save(new Book("Emma", "en", 10.0, austen));
+        statistics.rebuild();
+
+        BookUpsertService.Result result = upsertService.upsert(List.of(
+                book("Emma", "Austen, Jane"),
+                book("Good Omens", "Pratchett, Terry", "Gaiman, Neil"),
+                book("GOOD OMENS", "Pratchett, Terry"),
+                new BookDTO(null, "Anonymous Pamphlet", List.of(), List.of("en"), 3.0)));
+
+        assertEquals(1, result.inserted().size());
+        assertEquals("Pratchett, Terry", result.inserted().getFirst().authorName());
+        assertEquals(2, result.authorsInserted());
+        assertEquals(3, result.skipped());
+        assertEquals(List.of("Gaiman, Neil", "Pratchett, Terry"), jdbcTemplate.queryForList("""
+                SELECT a.name FROM book_authors l JOIN authors a ON a.id = l.author_id
+                WHERE l.book_id = ? ORDER BY a.name
+                """, String.class, result.inserted().getFirst().id()));
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+    }
+
+    @Test
+    void concurrentOverlappingBatchesStoreEachRowOnce() throws Exception {
+        int threads = 8;
+        int titles = 120;
+        List<BookDTO> catalog = new ArrayList<>();
+        for (int i = 0; i < titles; i++) {
+            // 30 authors shared across the catalog, some books with two of them.
+            String first = "Author " + (i % 30);
+            catalog.add(i % 3 == 0 ? book(i + 1, "Title " + i, first, "Author " + ((i + 7) % 30)) : book(i + 1, "Title " + i, first));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> inserted = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                List<BookDTO> shuffled = new ArrayList<>(catalog);
+                Collections.shuffle(shuffled, new Random(t));
+                Callable<Integer> worker = () -> {
+                    start.await();
+                    int count = 0;
+                    for (int from = 0; from < shuffled.size(); from += 16) {
+                        count += upsertService.upsert(shuffled.subList(from, Math.min(shuffled.size(), from + 16))).inserted().size();
+                    }
+                    return count;
+                };
+                inserted.add(executor.submit(worker));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : inserted) {
+                total += future.get();
+            }
+
+            // Every title inserted by exactly one caller, nothing lost, nothing duplicated.
+            assertEquals(titles, total);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(titles, bookRepository.count());
+        assertEquals(30, authorRepository.count());
+        assertEquals(titles + titles / 3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book_authors", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM books b WHERE NOT EXISTS (SELECT 1 FROM book_authors l WHERE l.book_id = b.id AND l.author_id = b.author_id)",
+                Integer.class));
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+    }
+
+    @Test
+    void booksAreIdentifiedByGutendexId() {
+        // Saved before Gutendex ids were stored.
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        bookRepository.save(new Book("Emma", "en", 10.0, austen));
+        // Another book with the same title, by a different author.
+        Book otherPersuasion = bookRepository.save(new Book("Persuasion", "en", 20.0,
+                authorRepository.save(new Author("Anônimo", null, null))));
+        statistics.rebuild();
+        idFilter.rebuild();
+        assertTrue(idFilter.hasUntaggedBooks());
+
+        BookUpsertService.Result result = upsertService.upsert(List.of(
+                book(158, "Emma", "Austen, Jane"),
+                book(105, "Persuasion", "Austen, Jane"),
+                book(1342, "Pride and Prejudice", "Austen, Jane"),
+                book(1342, "Pride & Prejudice", "Austen, Jane"),
+                book(42671, "Pride and Prejudice", "Austen, Jane")));
+
+        // The stored Emma received its id, the other Persuasion did not; both editions of Pride
+        // and Prejudice were kept.
+        assertEquals(List.of(105, 1342, 42671), result.inserted().stream().map(b -> bookRepository.findById(b.id()).orElseThrow().getGutendexId()).toList());
+        assertEquals(2, result.skipped());
+        assertEquals(5, bookRepository.count());
+        assertTrue(bookRepository.existsByGutendexId(158));
+        assertNull(bookRepository.findById(otherPersuasion.getId()).orElseThrow().getGutendexId());
+        assertTrue(idFilter.contains(158));
+        assertTrue(idFilter.hasUntaggedBooks());
+        assertEquals(List.of(158, 42671), bookRepository.findExistingGutendexIds(List.of(158, 7, 42671)).stream().sorted().toList());
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+    }
+
+    @Test
+    void untaggedBooksStopBeingMatchedOnceAllAreTagged() {
+        bookRepository.save(new Book("Emma", "en", 10.0, authorRepository.save(new Author("Austen, Jane", 1775, 1817))));
+        idFilter.rebuild();
+
+        upsertService.upsert(List.of(book(158, "Emma", "Austen, Jane")));
+
+        assertTrue(idFilter.contains(158));
+        assertFalse(idFilter.hasUntaggedBooks());
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    void storedIdsAreSkippedWithoutQueryingTheDatabase() {
+        upsertService.upsert(List.of(book(55752, "Dom Casmurro", "Machado de Assis")));
+        assertTrue(idFilter.contains(55752));
+        assertFalse(idFilter.contains(55753));
+
+        // Deleted behind the filter's back: the filter still answers, so the row is not written again.
+        jdbcTemplate.update("DELETE FROM book_authors");
+        jdbcTemplate.update("DELETE FROM book_languages");
+        jdbcTemplate.update("DELETE FROM books");
+        assertEquals(1, upsertService.upsert(List.of(book(55752, "Dom Casmurro", "Machado de Assis"))).skipped());
+        assertEquals(0, bookRepository.count());
+
+        idFilter.rebuild();
+        assertEquals(1, upsertService.upsert(List.of(book(55752, "Dom Casmurro", "Machado de Assis"))).inserted().size());
+        statistics.rebuild();
+    }
+
+    private static BookDTO book(String title, String... authors) {
+        return book(null, title, authors);
+    }
+
+    private static BookDTO book(Integer id, String title, String... authors) {
+        List<AuthorDTO> credited = new ArrayList<>();
+        for (String name : authors) {
+            credited.add(new AuthorDTO(name, 1900, 1980));
+        }
+        return new BookDTO(id, title, credited, List.of("en"), 100.0);
+    }
+}
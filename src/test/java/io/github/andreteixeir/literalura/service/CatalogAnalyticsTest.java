@@ -0,0 +1,88 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.AuthorLifespanDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogAnalyticsTest {
+
+    private static final String[] LANGUAGES = {"en", "pt", "fr", null};
+
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(null, null, null, 120, true);
+    private final List<RankedBookDTO> books = new ArrayList<>();
+
+    @BeforeEach
+    void loadSyntheticCatalog() {
+        // 100k books, enough to be split into several chunks; 1 in 10 without downloads.
+        Random random = new Random(42);
+        List<AuthorLifespanDTO> authors = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            authors.add(new AuthorLifespanDTO(id, id % 50 == 0 ? null : 1500 + (int) (id % 450), null));
+        }
+        for (long id = 1; id <= 100_000; id++) {
+            Double downloads = id % 10 == 0 ? null : (double) random.nextInt(100_000);
+            books.add(new RankedBookDTO(id, "Title " + id, 1 + random.nextLong(500), null,
+                    LANGUAGES[random.nextInt(LANGUAGES.length)], downloads));
+        }
+        snapshot.load(authors.stream(), books.stream());
+    }
+
+    @Test
+    void parallelGroupsMatchASequentialComputation() {
+        try (CatalogAnalytics sequential = new CatalogAnalytics(snapshot, 1);
+             CatalogAnalytics parallel = new CatalogAnalytics(snapshot, 4)) {
+            Map<String, CatalogAnalytics.Summary> byLanguage = parallel.byLanguage();
+
+            assertEquals(List.of("en", "fr", "pt"), List.copyOf(byLanguage.keySet()));
+            double[] portuguese = books.stream().filter(b -> "pt".equals(b.language()) && b.downloadCount() != null)
+                    .mapToDouble(RankedBookDTO::downloadCount).sorted().toArray();
+            CatalogAnalytics.Summary pt = byLanguage.get("pt");
+            assertEquals(portuguese.length, pt.withDownloads());
+            assertEquals(Arrays.stream(portuguese).sum(), pt.totalDownloads(), 1e-6);
+            assertEquals(portuguese[0], pt.minDownloads());
+            assertEquals(portuguese[portuguese.length - 1], pt.maxDownloads());
+            assertEquals(portuguese[(portuguese.length - 1) / 2], pt.medianDownloads(), portuguese[(portuguese.length - 1) / 2] * 0.02);
+
+            assertEquals(sequential.byLanguage(), byLanguage);
+            assertEquals(sequential.byAuthor(), parallel.byAuthor());
+            assertEquals(sequential.byBirthCentury(), parallel.byBirthCentury());
+            assertEquals(sequential.overall(), parallel.overall());
+            assertEquals(100_000, parallel.overall().books());
+            assertEquals(List.of(1500, 1600, 1700, 1800, 1900), List.copyOf(parallel.byBirthCentury().keySet()));
+        }
+    }
+
+    @Test
+    void mergedSketchesAnswerLikeASingleOne() {
+        double[] values = IntStream.range(0, 10_000).mapToDouble(i -> i % 7 == 0 ? 0 : i * 3.5).toArray();
+        QuantileSketch whole = new QuantileSketch(0.01);
+        QuantileSketch left = new QuantileSketch(0.01);
+        QuantileSketch right = new QuantileSketch(0.01);
+        for (int i = 0; i < values.length; i++) {
+            whole.add(values[i]);
+            (i % 2 == 0 ? left : right).add(values[i]);
+        }
+        left.merge(right);
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            double exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            assertEquals(whole.quantile(q), left.quantile(q));
+            assertEquals(exact, whole.quantile(q), exact * 0.01 + 1e-9, "q=" + q);
+        }
+        assertEquals(values.length, left.count());
+        assertTrue(Double.isNaN(new QuantileSketch(0.01).quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.05)));
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogArchiveServiceTest {
+
+    // Every book with its Gutendex id, language, downloads and credited authors (first one first).
+    private static final String CATALOG_QUERY = """
+            SELECT b.title || '|' || COALESCE(CAST(b.gutendex_id AS VARCHAR), '-') || '|' || COALESCE(b.language, '-') || '|' ||
+                   COALESCE(CAST(b.download_count AS VARCHAR), '-') || '|' ||
+                   a.name || ' ' || COALESCE(CAST(a.birth_year AS VARCHAR), '?') || '-' || COALESCE(CAST(a.death_year AS VARCHAR), '?')
+            FROM books b JOIN book_authors l ON l.book_id = b.id JOIN authors a ON a.id = l.author_id
+            ORDER BY b.title, CASE WHEN a.id = b.author_id THEN 0 ELSE 1 END, a.name
+            """;
+    // Every language listed by every book.
+    private static final String LANGUAGES_QUERY = """
+            SELECT b.title || '|' || l.language FROM books b JOIN book_languages l ON l.book_id = b.id ORDER BY b.title, l.language
+            """;
+
+    @Autowired
+    private CatalogArchiveService archiveService;
+    @Autowired
+    private BookUpsertService upsertService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CatalogStatistics statistics;
+    @Autowired
+    private GutendexIdFilter idFilter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        idFilter.rebuild();
+        List<BookDTO> books = new ArrayList<>();
+        books.add(new BookDTO(3_456, "Good Omens", List.of(new AuthorDTO("Pratchett, Terry", 1948, 2015),
+                new AuthorDTO("Gaiman, Neil", 1960, null)), List.of("en", "pt", "de"), 12_345.0));
+        books.add(new BookDTO(6_130, "A Ilíada", List.of(new AuthorDTO("Homero", -750, -700)), List.of("pt"), 0.5));
+        books.add(new BookDTO(null, "Sem idioma nem downloads", List.of(new AuthorDTO("Anônimo", null, null)), List.of(), null));
+        // Enough books for several import transactions.
+        for (int i = 0; i < CatalogArchiveService.IMPORT_PAGE + 10; i++) {
+            books.add(new BookDTO(10_000 + i, "Título " + i, List.of(new AuthorDTO("Autor " + (i % 40), 1800 + i % 40, 1880 + i % 40)),
+                    List.of(i % 3 == 0 ? "fr" : "en"), (double) i * 1_000_003L));
+        }
+        upsertService.upsert(books);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void exportedCatalogIsImportedBackUnchanged(boolean compress) throws Exception {
+        List<String> original = jdbcTemplate.queryForList(CATALOG_QUERY, String.class);
+        List<String> originalLanguages = jdbcTemplate.queryForList(LANGUAGES_QUERY, String.class);
+        Path file = directory.resolve("catalog.ltra");
+
+        CatalogArchiveService.ExportReport exported = archiveService.export(file, compress);
+        assertEquals(1_013, exported.books());
+        assertEquals(44, exported.authors());
+        assertEquals(Files.size(file), exported.bytes());
+
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        statistics.rebuild();
+        idFilter.rebuild();
+        CatalogArchiveService.ImportReport imported = archiveService.importArchive(file);
+
+        assertEquals(1_013, imported.booksRead());
+        assertEquals(1_013, imported.booksInserted());
+        assertEquals(44, imported.authorsInserted());
+        assertEquals(original, jdbcTemplate.queryForList(CATALOG_QUERY, String.class));
+        assertEquals(originalLanguages, jdbcTemplate.queryForList(LANGUAGES_QUERY, String.class));
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+
+        // Importing again only finds registered rows.
+        assertEquals(0, archiveService.importArchive(file).booksInserted());
+    }
+
+    @Test
+    void compressionShrinksTheArchive() {
+        long plain = archiveService.export(directory.resolve("plain.ltra"), false).bytes();
+        long compressed = archiveService.export(directory.resolve("compressed.ltra"), true).bytes();
+
+        assertTrue(compressed < plain, () -> compressed + " >= " + plain);
+    }
+
+    @Test
+    void rejectsOtherFilesAndNewerVersions() throws Exception {
+        Path text = Files.writeString(directory.resolve("notes.txt"), "not an archive");
+        assertThrows(IllegalArgumentException.class, () -> archiveService.importArchive(text));
+
+        Path future = directory.resolve("future.ltra");
+        archiveService.export(future, false);
+        byte[] bytes = Files.readAllBytes(future);
+        bytes[CatalogArchiveService.MAGIC.length] = (byte) (CatalogArchiveService.VERSION + 1);
+        Files.write(future, bytes);
+        assertThrows(IllegalArgumentException.class, () -> archiveService.importArchive(future));
+
+        bytes[CatalogArchiveService.MAGIC.length] = (byte) CatalogArchiveService.VERSION;
+        Path truncated = Files.write(directory.resolve("truncated.ltra"), Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IllegalArgumentException.class, () -> archiveService.importArchive(truncated));
+    }
+
+    @Test
+    void rejectsCorruptArchives() throws Exception {
+        // A book in language 5 when the archive declares none.
+        Path unknownLanguage = archive("unknown-language.ltra", CatalogArchiveService.BOOK, 1, 'X', CatalogArchiveService.HAS_LANGUAGE, 5, 0);
+        // A book with 100 authors in a record that has room for none.
+        Path authorCount = archive("author-count.ltra", CatalogArchiveService.BOOK, 1, 'X', 0, 100);
+        // A title longer than its record.
+        Path titleLength = archive("title-length.ltra", CatalogArchiveService.BOOK, 50, 'X');
+
+        for (Path file : List.of(unknownLanguage, authorCount, titleLength)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> archiveService.importArchive(file));
+            assertTrue(e.getMessage().startsWith("Corrupt catalog archive"), e.getMessage());
+        }
+
+        Path compressed = directory.resolve("compressed.ltra");
+        archiveService.export(compressed, true);
+        byte[] bytes = Files.readAllBytes(compressed);
+        Path truncated = Files.write(directory.resolve("compressed-truncated.ltra"), Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IllegalArgumentException.class, () -> archiveService.importArchive(truncated));
+    }
+
+    // An uncompressed archive with one record (given as unsigned bytes) followed by the end record.
+    private Path archive(String name, int... record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(CatalogArchiveService.MAGIC);
+        out.write(CatalogArchiveService.VERSION);
+        out.write(0);
+        out.write(record.length);
+        for (int b : record) {
+            out.write(b);
+        }
+        out.write(1);
+        out.write(CatalogArchiveService.END);
+        return Files.write(directory.resolve(name), out.toByteArray());
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.repository.IngestionCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogIngestionServiceTest.SavingStageGate.class)
+class CatalogIngestionServiceTest {
+
+    private static final HttpServer server = startStubServer();
+    // Number of upcoming requests for the second page answered with 503 (fault injection).
+    private static final AtomicInteger page2Failures = new AtomicInteger();
+    // The "chain" pages link to each other and the last one answers 404 once it is reached.
+    private static final int CHAIN_PAGES = 3;
+    private static final CountDownLatch chainEndServed = new CountDownLatch(1);
+
+    @Autowired
+    private CatalogIngestionService ingestionService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private IngestionCheckpointRepository checkpointRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void gutendexProperties(DynamicPropertyRegistry registry) {
+        registry.add("literalura.gutendex.base-url", () -> baseUrl() + "/books/");
+        registry.add("literalura.fetch.initial-backoff", () -> "10ms");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void cleanDatabase() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void followsNextLinksAndSavesEveryPage() {
+        double booksBefore = meterRegistry.get("literalura.ingestion.rows").tag("entity", "books").counter().count();
+
+        CatalogIngestionService.Report report = ingestionService.ingestCatalog();
+
+        assertEquals(2, report.pages());
+        assertEquals(3, report.booksSaved());
+        assertFalse(report.resumed());
+        assertEquals(3, bookRepository.count());
+        // "Jane Austen" appears on both pages but must be stored only once.
+        assertEquals(2, authorRepository.count());
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(CatalogIngestionService.CHECKPOINT_NAME).orElseThrow();
+        assertTrue(checkpoint.getCompleted());
+        assertEquals(2, checkpoint.getPagesCommitted());
+        assertEquals(3, meterRegistry.get("literalura.ingestion.rows").tag("entity", "books").counter().count() - booksBefore);
+    }
+
+    @Test
+    void resumesFromTheLastCommittedPage() {
+        IngestionCheckpoint interrupted = new IngestionCheckpoint(CatalogIngestionService.CHECKPOINT_NAME, baseUrl() + "/books/page2");
+        interrupted.setPagesCommitted(1);
+        checkpointRepository.save(interrupted);
+
+        CatalogIngestionService.Report report = ingestionService.ingestCatalog();
+
+        assertTrue(report.resumed());
+        assertEquals(1, report.pages());
+        assertEquals(1, report.booksSaved());
+        assertEquals("Persuasion", bookRepository.findAll().getFirst().getTitle());
+    }
+
+    @Test
+    void skipsBooksThatAreAlreadyRegistered() {
+        ingestionService.ingestCatalog();
+        CatalogIngestionService.Report secondRun = ingestionService.ingestCatalog();
+
+        assertEquals(0, secondRun.booksSaved());
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    void retriesAPageTheApiFailsToServe() {
+        page2Failures.set(2);
+
+        CatalogIngestionService.Report report = ingestionService.ingestCatalog();
+
+        assertEquals(0, page2Failures.get());
+        assertEquals(2, report.pages());
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    void reportsAFetchErrorThatArrivesWhileThePrefetchQueueIsFull() {
+        IngestionCheckpoint interrupted = new IngestionCheckpoint(CatalogIngestionService.CHECKPOINT_NAME, baseUrl() + "/books/chain1");
+        interrupted.setPagesCommitted(1);
+        checkpointRepository.save(interrupted);
+        // The saving stage stalls after the first page until the fetcher has read the two pages
+        // the queue holds and failed on the next one.
+        SavingStageGate.stallUntil(chainEndServed);
+
+        RuntimeException error = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(RuntimeException.class, ingestionService::ingestCatalog));
+
+        assertTrue(error.getMessage().contains("404"), error.getMessage());
+        assertEquals(CHAIN_PAGES, bookRepository.count());
+        assertFalse(ingestionService.isRunning());
+    }
+
+    /**
+     * Holds the saving stage of an import after a committed page, when armed.
+     */
+    static class SavingStageGate {
+        private static final AtomicReference<CountDownLatch> until = new AtomicReference<>();
+
+        static void stallUntil(CountDownLatch latch) {
+            until.set(latch);
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onBookSaved(BookSavedEvent event) throws InterruptedException {
+            CountDownLatch latch = until.getAndSet(null);
+            if (latch != null) {
+                latch.await(10, TimeUnit.SECONDS);
+                // Leaves the fetcher time to hand the error over.
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private static String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer startStubServer() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/books/chain", exchange -> {
+                int page = Integer.parseInt(exchange.getRequestURI().getPath().substring("/books/chain".length()));
+                if (page > CHAIN_PAGES) {
+                    chainEndServed.countDown();
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                    return;
+                }
+                String body = """
+                        {"count": 3, "next": "%s/books/chain%d", "results": [
+                          {"id": %d, "title": "Chain Page %d", "authors": [{"name": "Austen, Jane"}], "languages": ["en"], "download_count": 1}
+                        ]}
+                        """.formatted(baseUrl(), page + 1, 9000 + page, page);
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.createContext("/books/", exchange -> {
+                boolean secondPage = exchange.getRequestURI().getPath().endsWith("page2");
+                if (secondPage && page2Failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    exchange.sendResponseHeaders(503, -1);
+                    exchange.close();
+                    return;
+                }
+                String body = secondPage ? """
+                        {"count": 3, "next": null, "results": [
+                          {"title": "Persuasion", "authors": [{"name": "Austen, Jane", "birth_year": 1775, "death_year": 1817}],
+                           "languages": ["en"], "download_count": 1200}
+                        ]}
+                        """ : """
+                        {"count": 3, "next": "%s/books/page2", "results": [
+                          {"title": "Pride and Prejudice", "authors": [{"name": "Austen, Jane", "birth_year": 1775, "death_year": 1817}],
+                           "languages": ["en"], "download_count": 50000},
+                          {"title": "Dom Casmurro", "authors": [{"name": "Machado de Assis", "birth_year": 1839, "death_year": 1908}],
+                           "languages": ["pt"], "download_count": 900},
+                          {"title": "Anonymous Pamphlet", "authors": [], "languages": ["en"], "download_count": 3}
+                        ]}
+                        """.formatted(baseUrl());
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.model.SearchKeys;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSearchServiceTest {
+
+    @Autowired
+    private CatalogSearchService searchService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        Author austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        authorRepository.save(new Author("Austen, Cassandra", 1773, 1845));
+        Author machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        bookRepository.save(new Book("Pride and Prejudice", "en", 50000.0, austen));
+        bookRepository.save(new Book("Dom Casmurro", "pt", 900.0, machado));
+    }
+
+    @Test
+    void keysIgnoreCaseAccentsAndPunctuation() {
+        assertEquals("dom casmurro", SearchKeys.normalize("  DOM  Cásmurro! "));
+        assertEquals("austen jane", SearchKeys.normalize("Austen, Jane"));
+        assertNull(SearchKeys.normalize(null));
+    }
+
+    @Test
+    void duplicateCheckUsesTheExactNormalizedTitle() {
+        assertTrue(bookRepository.existsByTitleKey(SearchKeys.normalize("dom CASMURRO")));
+        // A substring is no longer treated as a duplicate.
+        assertFalse(bookRepository.existsByTitleKey(SearchKeys.normalize("Dom")));
+    }
+
+    @Test
+    void severalMatchesAreRankedInsteadOfFailing() {
+        List<Author> found = searchService.searchAuthors("austen", 10);
+
+        assertEquals(2, found.size());
+        assertTrue(found.stream().allMatch(a -> a.getName().startsWith("Austen")));
+        assertEquals(1, found.getFirst().getBooks().size() + found.getLast().getBooks().size());
+    }
+
+    @Test
+    void tokensMatchInAnyOrderAndExactKeysRankFirst() {
+        assertEquals("Austen, Jane", searchService.searchAuthors("Jane Austen", 5).getFirst().getName());
+
+        List<CatalogSearchService.Match> titles = searchService.searchBooks("dom casmurro", 5);
+        assertEquals(1, titles.size());
+        assertEquals(1.0, titles.getFirst().score());
+    }
+
+    @Test
+    void resultsAreLimited() {
+        assertEquals(1, searchService.searchAuthors("austen", 1).size());
+        assertTrue(searchService.searchAuthors("tolstoy", 5).isEmpty());
+        assertTrue(searchService.searchAuthors("  ", 5).isEmpty());
+    }
+
+    @Test
+    void keysOfOlderRowsAreFilledIn() {
+        jdbcTemplate.update("UPDATE authors SET name_key = NULL");
+        jdbcTemplate.update("UPDATE books SET title_key = NULL");
+
+        searchService.prepareIndexes();
+
+        assertTrue(authorRepository.findByNameKey("machado de assis").isPresent());
+        assertTrue(bookRepository.existsByTitleKey("pride and prejudice"));
+    }
+}
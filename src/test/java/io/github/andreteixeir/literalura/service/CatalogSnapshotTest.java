@@ -0,0 +1,108 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.LanguageCountDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.event.CatalogImportedEvent;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSnapshotTest {
+
+    @Autowired
+    private CatalogSnapshot snapshot;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private AuthorLifespanIndex lifespanIndex;
+
+    private Author austen;
+    private Author machado;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        authorRepository.save(new Author("Anônimo", null, null));
+        // No death year: alive until 1900 with the default max-lifespan of 120 years.
+        authorRepository.save(new Author("Byron, George Gordon", 1780, null));
+        bookRepository.save(new Book("Emma", "en", 5.0, austen));
+        bookRepository.save(new Book("Persuasion", "en", 1_500.0, austen));
+        bookRepository.save(new Book("Dom Casmurro", "pt", 900.0, machado));
+        bookRepository.save(new Book("Sem downloads", "pt", null, machado));
+        bookRepository.save(new Book("Sem idioma", null, 7.0, null));
+        snapshot.refresh();
+    }
+
+    @Test
+    void queriesMatchTheRepositories() {
+        Map<String, Long> expected = new TreeMap<>();
+        for (LanguageCountDTO row : bookRepository.countByLanguage()) {
+            if (row.language() != null) {
+                expected.put(row.language(), row.count());
+            }
+        }
+        assertEquals(expected, snapshot.countsByLanguage());
+        assertEquals(2, snapshot.countByLanguage("pt"));
+        assertEquals(0, snapshot.countByLanguage("fr"));
+
+        CatalogSnapshot.Aggregates all = snapshot.aggregates(null);
+        assertEquals(5, all.books());
+        assertEquals(bookRepository.getAverageDownloadCount(), all.averageDownloads(), 1e-9);
+        assertEquals(bookRepository.getMaxDownloadCount(), all.maxDownloads());
+        assertEquals(bookRepository.getMinDownloadCount(), all.minDownloads());
+        assertEquals(new CatalogSnapshot.Aggregates(2, 1, 900.0, 900.0, 900.0), snapshot.aggregates("pt"));
+
+        lifespanIndex.rebuild();
+        assertEquals(2, snapshot.authorsAliveIn(1800).length);
+        assertArrayEquals(lifespanIndex.aliveIn(1800), snapshot.authorsAliveIn(1800));
+        assertArrayEquals(lifespanIndex.aliveIn(1900), snapshot.authorsAliveIn(1900));
+        assertEquals(0, snapshot.authorsAliveIn(1950).length);
+    }
+
+    @Test
+    void topReturnsTheMostDownloadedBooksWithTheirAuthors() {
+        List<RankedBookDTO> top = snapshot.top(null, 3);
+
+        assertEquals(List.of("Persuasion", "Dom Casmurro", "Sem idioma"), top.stream().map(RankedBookDTO::title).toList());
+        assertEquals(austen.getId(), top.getFirst().authorId());
+        assertEquals("Machado de Assis", top.get(1).authorName());
+        assertNull(top.get(2).language());
+        assertEquals(List.of("Dom Casmurro"), snapshot.top("pt", 10).stream().map(RankedBookDTO::title).toList());
+        assertTrue(snapshot.top("fr", 10).isEmpty());
+    }
+
+    @Test
+    void importsReplaceTheSnapshot() {
+        CatalogSnapshot.Footprint before = snapshot.footprint();
+        bookRepository.save(new Book("Quincas Borba", "pt", 2_000.0, machado));
+        assertEquals(before, snapshot.footprint());
+
+        eventPublisher.publishEvent(new CatalogImportedEvent(1, 1));
+
+        assertEquals(before.books() + 1, snapshot.footprint().books());
+        assertEquals("Quincas Borba", snapshot.top("pt", 1).getFirst().title());
+        assertTrue(snapshot.footprint().bytes() > before.bytes());
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.event.AuthorSavedEvent;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogStatisticsTest {
+
+    @Autowired
+    private CatalogStatistics statistics;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Author author;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        author = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        bookRepository.save(new Book("Emma", "en", 5.0, author));
+        bookRepository.save(new Book("Persuasion", "en", 1_500.0, author));
+        statistics.rebuild();
+    }
+
+    @Test
+    void rebuildMatchesAFullRecompute() {
+        CatalogStatistics.Snapshot snapshot = statistics.snapshot();
+
+        assertEquals(2, snapshot.bookCount());
+        assertEquals(1, snapshot.authorCount());
+        assertEquals(752.5, snapshot.averageDownloads());
+        assertEquals("Persuasion", snapshot.mostDownloaded().title());
+        assertEquals("Emma", snapshot.leastDownloaded().title());
+        assertEquals(Map.of("en", 2L), snapshot.booksByLanguage());
+        assertTrue(statistics.verify().isEmpty());
+    }
+
+    @Test
+    void savedBooksUpdateTheAggregateIncrementally() {
+        Author machado = save(new Author("Machado de Assis", 1839, 1908));
+        save(new Book("Dom Casmurro", "pt", 250_000.0, machado));
+        save(new Book("Quincas Borba", "pt", 1.0, machado));
+
+        CatalogStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(4, snapshot.bookCount());
+        assertEquals(2, snapshot.authorCount());
+        assertEquals("Dom Casmurro", snapshot.mostDownloaded().title());
+        assertEquals("Quincas Borba", snapshot.leastDownloaded().title());
+        assertEquals(Map.of("en", 2L, "pt", 2L), snapshot.booksByLanguage());
+        // Buckets: <10, <100, <1k, <10k, <100k, 100k+
+        assertArrayEquals(new long[]{2, 0, 0, 1, 0, 1}, snapshot.histogram());
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+    }
+
+    @Test
+    void verifyReportsRowsSavedWithoutAnEvent() {
+        bookRepository.save(new Book("Sanditon", "en", 10.0, author));
+
+        assertFalse(statistics.verify().isEmpty());
+        statistics.rebuild();
+        assertTrue(statistics.verify().isEmpty());
+    }
+
+    private Author save(Author newAuthor) {
+        authorRepository.save(newAuthor);
+        eventPublisher.publishEvent(new AuthorSavedEvent(newAuthor.getId(), newAuthor.getName(), newAuthor.getBirthYear(), newAuthor.getDeathYear()));
+        return newAuthor;
+    }
+
+    private void save(Book book) {
+        bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(book.getId(), book.getGutendexId(), book.getTitle(), book.getLanguage(),
+                List.copyOf(book.getLanguages()), book.getDownloadCount(), book.getAuthor().getId(), book.getAuthor().getName()));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.andreteixeir.literalura.dto.ApiResponseDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataConverterTest {
+
+    private static byte[] page;
+    private final DataConverter converter = new DataConverter(new ObjectMapper(), new SimpleMeterRegistry());
+
+    @BeforeAll
+    static void loadFixture() throws IOException {
+        // A recorded-shape Gutendex page with the API's full 32 results.
+        try (InputStream in = DataConverterTest.class.getResourceAsStream("/gutendex/books-page.json")) {
+            page = in.readAllBytes();
+        }
+    }
+
+    @Test
+    void streamingMatchesBufferedParsing() {
+        ApiResponseDTO buffered = converter.getData(new String(page, StandardCharsets.UTF_8), ApiResponseDTO.class);
+        List<BookDTO> streamed = new ArrayList<>();
+        String next = converter.readResults(new ByteArrayInputStream(page), streamed::add);
+
+        assertEquals(32, streamed.size());
+        assertEquals(buffered.results(), streamed);
+        assertEquals(buffered.next(), next);
+        assertEquals(76543, buffered.count());
+    }
+
+    @Test
+    void readResultsReturnsNullOnTheLastPage() {
+        String lastPage = "{\"count\": 1, \"next\": null, \"results\": [{\"title\": \"Emma\", \"authors\": [], \"languages\": [\"en\"]}]}";
+        List<BookDTO> books = new ArrayList<>();
+
+        assertNull(converter.readResults(new ByteArrayInputStream(lastPage.getBytes(StandardCharsets.UTF_8)), books::add));
+        assertEquals("Emma", books.getFirst().title());
+    }
+
+    @Test
+    void readResultsRejectsMalformedJson() {
+        InputStream truncated = new ByteArrayInputStream("{\"results\": [{\"title\": ".getBytes(StandardCharsets.UTF_8));
+        assertThrows(RuntimeException.class, () -> converter.readResults(truncated, book -> {}));
+    }
+}
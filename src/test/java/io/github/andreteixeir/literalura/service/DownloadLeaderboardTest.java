@@ -0,0 +1,83 @@
+package io.github.andreteixeir.literalura.service;
+
+import io.github.andreteixeir.literalura.dto.BookSummaryDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.event.BookSavedEvent;
+import io.github.andreteixeir.literalura.model.Author;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "literalura.leaderboard.capacity=3")
+class DownloadLeaderboardTest {
+
+    @Autowired
+    private DownloadLeaderboard leaderboard;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Author austen;
+    private Author machado;
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        austen = authorRepository.save(new Author("Austen, Jane", 1775, 1817));
+        machado = authorRepository.save(new Author("Machado de Assis", 1839, 1908));
+        bookRepository.save(new Book("Emma", "en", 5.0, austen));
+        bookRepository.save(new Book("Persuasion", "en", 1_500.0, austen));
+        bookRepository.save(new Book("Dom Casmurro", "pt", 900.0, machado));
+        bookRepository.save(new Book("Sem downloads", "pt", null, machado));
+        leaderboard.rebuild();
+    }
+
+    @Test
+    void rebuildMatchesTheRepositoryQuery() {
+        List<String> expected = bookRepository.findTop10Summaries().stream()
+                .filter(b -> b.downloadCount() != null).limit(3).map(BookSummaryDTO::title).toList();
+
+        assertEquals(expected, titles(leaderboard.top(10)));
+        assertEquals(List.of("Persuasion", "Emma"), titles(leaderboard.topByLanguage("en", 5)));
+        assertEquals(List.of("Dom Casmurro"), titles(leaderboard.topByAuthor(machado.getId(), 5)));
+        assertTrue(leaderboard.topByLanguage("fr", 5).isEmpty());
+    }
+
+    @Test
+    void savedBooksEnterTheRankingsAndTheLastPlaceIsDropped() {
+        save(new Book("Quincas Borba", "pt", 2_000.0, machado));
+        save(new Book("Sanditon", "en", 1.0, austen));
+
+        assertEquals(List.of("Quincas Borba", "Persuasion", "Dom Casmurro"), titles(leaderboard.top(10)));
+        assertEquals(List.of("Quincas Borba", "Dom Casmurro"), titles(leaderboard.topByLanguage("pt", 10)));
+        assertEquals(List.of("Persuasion", "Emma", "Sanditon"), titles(leaderboard.topByAuthor(austen.getId(), 10)));
+        assertEquals(List.of("Quincas Borba"), titles(leaderboard.top(1)));
+    }
+
+    private void save(Book book) {
+        bookRepository.save(book);
+        eventPublisher.publishEvent(new BookSavedEvent(book.getId(), book.getGutendexId(), book.getTitle(), book.getLanguage(),
+                List.copyOf(book.getLanguages()), book.getDownloadCount(), book.getAuthor().getId(), book.getAuthor().getName()));
+    }
+
+    private static List<String> titles(List<RankedBookDTO> books) {
+        return books.stream().map(RankedBookDTO::title).toList();
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.andreteixeir.literalura.dto.AuthorDTO;
+import io.github.andreteixeir.literalura.dto.BookDTO;
+import io.github.andreteixeir.literalura.dto.RankedBookDTO;
+import io.github.andreteixeir.literalura.model.Book;
+import io.github.andreteixeir.literalura.model.IngestionCheckpoint;
+import io.github.andreteixeir.literalura.repository.AuthorRepository;
+import io.github.andreteixeir.literalura.repository.BookRepository;
+import io.github.andreteixeir.literalura.repository.IngestionCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DownloadRefreshServiceTest {
+
+    private static final HttpServer server = startStubServer();
+    // Current download count of each Gutendex id served by the stub; ids missing here are not returned.
+    private static final Map<Integer, Double> gutendexCounts = new ConcurrentHashMap<>();
+    private static final List<String> requestedIds = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private DownloadRefreshService refreshService;
+    @Autowired
+    private BookUpsertService upsertService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private IngestionCheckpointRepository checkpointRepository;
+    @Autowired
+    private CatalogStatistics statistics;
+    @Autowired
+    private DownloadLeaderboard leaderboard;
+    @Autowired
+    private CatalogSnapshot snapshot;
+    @Autowired
+    private GutendexIdFilter idFilter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void refreshProperties(DynamicPropertyRegistry registry) {
+        registry.add("literalura.gutendex.base-url", () -> "http://localhost:" + server.getAddress().getPort() + "/books/");
+        registry.add("literalura.fetch.rate", () -> "1000");
+        registry.add("literalura.refresh.batch-size", () -> "3");
+        registry.add("literalura.refresh.ids-per-request", () -> "2");
+        // Small enough for the rankings to be full, so a dropping book needs a reload.
+        registry.add("literalura.leaderboard.capacity", () -> "2");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void seed() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        checkpointRepository.deleteAll();
+        idFilter.rebuild();
+        AuthorDTO austen = new AuthorDTO("Austen, Jane", 1775, 1817);
+        AuthorDTO machado = new AuthorDTO("Machado de Assis", 1839, 1908);
+        upsertService.upsert(List.of(
+                new BookDTO(1342, "Pride and Prejudice", List.of(austen), List.of("en"), 50_000.0),
+                new BookDTO(105, "Persuasion", List.of(austen), List.of("en"), 1_200.0),
+                new BookDTO(158, "Emma", List.of(austen), List.of("en"), 800.0),
+                new BookDTO(55752, "Dom Casmurro", List.of(machado), List.of("pt"), 900.0),
+                new BookDTO(54829, "Memórias Póstumas de Brás Cubas", List.of(machado), List.of("pt"), null),
+                new BookDTO(null, "Sem identificador", List.of(machado), List.of("pt"), 10.0)));
+        statistics.rebuild();
+        leaderboard.rebuild();
+        snapshot.refresh();
+        gutendexCounts.clear();
+        gutendexCounts.putAll(Map.of(1342, 50_000.0, 105, 1_200.0, 158, 800.0, 55752, 900.0, 54829, 300.0));
+        requestedIds.clear();
+    }
+
+    @Test
+    void updatesOnlyTheChangedCountsAndTheViewsFollow() {
+        double updatedBefore = meterRegistry.get("literalura.refresh.rows").tag("outcome", "updated").counter().count();
+        gutendexCounts.put(1342, 700.0);  // The most downloaded book drops to the bottom.
+        gutendexCounts.put(158, 2_000.0); // Emma overtakes Persuasion.
+        gutendexCounts.remove(105);       // Not returned: keeps its count.
+
+        DownloadRefreshService.Report report = refreshService.refresh();
+
+        assertEquals(5, report.checked());
+        assertEquals(3, report.updated());
+        assertEquals(2, report.batches());
+        assertFalse(report.resumed());
+        assertEquals(700.0, downloads("Pride and Prejudice"));
+        assertEquals(1_200.0, downloads("Persuasion"));
+        assertEquals(300.0, downloads("Memórias Póstumas de Brás Cubas"));
+        assertEquals(10.0, downloads("Sem identificador"));
+        // Batches of 3 in requests of at most 2 ids.
+        assertTrue(requestedIds.stream().allMatch(ids -> ids.split(",").length <= 2), requestedIds::toString);
+        assertEquals(3, requestedIds.size());
+        assertEquals(3, meterRegistry.get("literalura.refresh.rows").tag("outcome", "updated").counter().count() - updatedBefore);
+
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+        assertEquals("Emma", statistics.snapshot().mostDownloaded().title());
+        assertEquals(titles(bookRepository.findRanked(Limit.of(2))), titles(leaderboard.top(2)));
+        assertEquals(List.of("Emma", "Persuasion"), titles(leaderboard.topByLanguage("en", 2)));
+        assertEquals(List.of("Emma", "Persuasion"), titles(snapshot.top(null, 2)));
+        assertEquals(6, snapshot.aggregates(null).withDownloads());
+
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(DownloadRefreshService.CHECKPOINT_NAME).orElseThrow();
+        assertTrue(checkpoint.getCompleted());
+        assertEquals(2, checkpoint.getPagesCommitted());
+        assertEquals(3, checkpoint.getBooksSaved());
+
+        // Nothing changed since: every book is checked again, none is written.
+        DownloadRefreshService.Report secondRun = refreshService.refresh();
+        assertEquals(5, secondRun.checked());
+        assertEquals(0, secondRun.updated());
+    }
+
+    @Test
+    void resumesAfterTheWatermark() {
+        List<Book> books = bookRepository.findAll().stream().filter(b -> b.getGutendexId() != null)
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId())).toList();
+        IngestionCheckpoint interrupted = new IngestionCheckpoint(DownloadRefreshService.CHECKPOINT_NAME, null);
+        interrupted.setWatermark(books.get(2).getId());
+        interrupted.setPagesCommitted(1);
+        checkpointRepository.save(interrupted);
+        books.forEach(b -> gutendexCounts.put(b.getGutendexId(), 1.0));
+
+        DownloadRefreshService.Report report = refreshService.refresh();
+
+        assertTrue(report.resumed());
+        assertEquals(2, report.checked());
+        assertEquals(Arrays.asList(books.get(0).getDownloadCount(), books.get(1).getDownloadCount(), books.get(2).getDownloadCount(), 1.0, 1.0),
+                books.stream().map(b -> downloads(b.getTitle())).toList());
+        assertTrue(statistics.verify().isEmpty(), () -> statistics.verify().toString());
+    }
+
+    private Double downloads(String title) {
+        return bookRepository.findAll().stream().filter(b -> b.getTitle().equals(title)).findFirst().orElseThrow().getDownloadCount();
+    }
+
+    private static List<String> titles(List<RankedBookDTO> books) {
+        return books.stream().map(RankedBookDTO::title).toList();
+    }
+
+    private static HttpServer startStubServer() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            stub.createContext("/books/", exchange -> {
+                String ids = exchange.getRequestURI().getQuery().replaceFirst("^ids=", "");
+                requestedIds.add(ids);
+                String results = Arrays.stream(ids.split(","))
+                        .map(Integer::valueOf)
+                        .filter(gutendexCounts::containsKey)
+                        .map(id -> """
+                                {"id": %d, "title": "Book %d", "authors": [], "languages": ["en"], "download_count": %s}
+                                """.formatted(id, id, gutendexCounts.get(id)))
+                        .collect(Collectors.joining(","));
+                byte[] bytes = ("{\"count\": 0, \"next\": null, \"results\": [" + results + "]}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchSchedulerTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    // Faults to inject, one per request: an HTTP status, optionally with a Retry-After value.
+    private final Queue<String[]> faults = new ConcurrentLinkedQueue<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ApiConsumer consumer;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/books/", this::handle);
+        server.start();
+        consumer = new ApiConsumer(Duration.ofSeconds(2), Duration.ofSeconds(5), 16, meterRegistry);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        consumer.close();
+        server.stop(0);
+    }
+
+    @Test
+    void retriesServerErrorsAndThrottlingUntilTheRequestSucceeds() {
+        faults.add(new String[]{"503"});
+        faults.add(new String[]{"429"});
+        faults.add(new String[]{"500"});
+
+        byte[] body = scheduler(1000, 4, 5).fetch(url());
+
+        assertEquals("{\"ok\": true}", new String(body, StandardCharsets.UTF_8));
+        assertEquals(4, requests.get());
+        assertEquals(2, meterRegistry.get("literalura.fetch.retries").tag("reason", "5xx").counter().count());
+        assertEquals(1, meterRegistry.get("literalura.fetch.retries").tag("reason", "429").counter().count());
+    }
+
+    @Test
+    void waitsForRetryAfterBeforeTheNextRequest() {
+        faults.add(new String[]{"429", "1"});
+
+        long start = System.nanoTime();
+        scheduler(1000, 4, 3).fetch(url());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(2, requests.get());
+        assertTrue(elapsed.toMillis() >= 1000, () -> "retried after " + elapsed.toMillis() + " ms");
+    }
+
+    @Test
+    void givesUpOnClientErrorsAndAfterTheLastAttempt() {
+        FetchScheduler scheduler = scheduler(1000, 4, 3);
+
+        faults.add(new String[]{"404"});
+        assertThrows(RuntimeException.class, () -> scheduler.fetch(url()));
+        assertEquals(1, requests.get());
+
+        for (int i = 0; i < 3; i++) {
+            faults.add(new String[]{"502"});
+        }
+        assertThrows(RuntimeException.class, () -> scheduler.fetch(url()));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void limitsTheRequestRate() {
+        // 20 requests per second with a burst of 1: ten requests need at least ~450 ms.
+        FetchScheduler scheduler = scheduler(20, 1, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            scheduler.fetch(url());
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis >= 420, () -> "10 requests in " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void capsTheRequestsInFlight() throws Exception {
+        FetchScheduler scheduler = new FetchScheduler(consumer, 1000, 1000, 2, 1,
+                Duration.ofMillis(10), Duration.ofMillis(100), meterRegistry);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                results.add(callers.submit(() -> scheduler.fetch(url() + "?slow")));
+            }
+            for (Future<byte[]> result : results) {
+                assertNotNull(result.get());
+            }
+        }
+        assertEquals(12, requests.get());
+        assertEquals(2, peakInFlight.get());
+    }
+
+    private FetchScheduler scheduler(double rate, int burst, int maxAttempts) {
+        return new FetchScheduler(consumer, rate, burst, 8, maxAttempts, Duration.ofMillis(10), Duration.ofMillis(100), meterRegistry);
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/books/";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        try {
+            if ("slow".equals(exchange.getRequestURI().getQuery())) {
+                Thread.sleep(30);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        String[] fault = faults.poll();
+        byte[] bytes = (fault == null ? "{\"ok\": true}" : "{\"error\": \"injected\"}").getBytes(StandardCharsets.UTF_8);
+        if (fault != null && fault.length > 1) {
+            exchange.getResponseHeaders().add("Retry-After", fault[1]);
+        }
+        exchange.sendResponseHeaders(fault == null ? 200 : Integer.parseInt(fault[0]), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
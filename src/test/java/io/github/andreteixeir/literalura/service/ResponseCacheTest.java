@@ -0,0 +1,145 @@
+package io.github.andreteixeir.literalura.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final String ETAG = "\"page-v1\"";
+
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private HttpServer server;
+    private ApiConsumer consumer;
+
+    @TempDir
+    Path cacheDirectory;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        // Answers 304 when the client already holds the current ETag.
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/books/", exchange -> {
+            if (exchange.getRequestURI().getRawQuery().startsWith("status=")) {
+                byte[] page = "<html>Too Many Requests</html>".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(Integer.parseInt(exchange.getRequestURI().getRawQuery().substring(7)), page.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(page);
+                }
+                return;
+            }
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] bytes = ("{\"query\": \"" + exchange.getRequestURI().getRawQuery() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        consumer = new ApiConsumer(Duration.ofSeconds(2), Duration.ofSeconds(5), 4, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        consumer.close();
+        server.stop(0);
+    }
+
+    @Test
+    void freshEntriesAreServedWithoutContactingTheServer() {
+        ResponseCache cache = new ResponseCache(consumer, Duration.ofMinutes(5), DataSize.ofMegabytes(1), "", new SimpleMeterRegistry());
+
+        String first = cache.fetchData(url("?search=dom%20casmurro"));
+        String second = cache.fetchData(url("?search=dom%20casmurro"));
+
+        assertEquals(first, second);
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void staleEntriesAreRevalidatedWithTheirETag() {
+        ResponseCache cache = new ResponseCache(consumer, Duration.ZERO, DataSize.ofMegabytes(1), "", new SimpleMeterRegistry());
+
+        String first = cache.fetchData(url("?search=emma"));
+        String revalidated = cache.fetchData(url("?search=emma"));
+
+        assertEquals(first, revalidated);
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(1, cache.stats().revalidations());
+    }
+
+    @Test
+    void errorResponsesAreRejectedAndNotCached() {
+        ResponseCache cache = new ResponseCache(consumer, Duration.ofMinutes(5), DataSize.ofMegabytes(1), "", new SimpleMeterRegistry());
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> cache.fetchData(url("?status=429")));
+        assertTrue(error.getMessage().contains("429"));
+        assertThrows(RuntimeException.class, () -> cache.fetchStream(url("?status=404")));
+
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().misses());
+    }
+
+    @Test
+    void equivalentUrlsShareOneEntry() {
+        assertEquals(ResponseCache.normalize("https://gutendex.com/books/?search=emma&languages=en"),
+                ResponseCache.normalize("HTTPS://Gutendex.com:443/books/?languages=en&search=emma#results"));
+        assertNotEquals(ResponseCache.normalize("https://gutendex.com/books/?search=emma"),
+                ResponseCache.normalize("https://gutendex.com/books/?search=persuasion"));
+    }
+
+    @Test
+    void sizeBoundEvictsOldEntries() {
+        ResponseCache cache = new ResponseCache(consumer, Duration.ofMinutes(5), DataSize.ofBytes(400), "", new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            cache.fetchData(url("?page=" + i));
+        }
+
+        assertTrue(cache.stats().evictions() > 0);
+        assertTrue(cache.stats().entries() < 10);
+    }
+
+    @Test
+    void diskTierSurvivesARestart() {
+        new ResponseCache(consumer, Duration.ofMinutes(5), DataSize.ofMegabytes(1), cacheDirectory.toString(), new SimpleMeterRegistry())
+                .fetchData(url("?search=persuasion"));
+
+        ResponseCache restarted = new ResponseCache(consumer, Duration.ofMinutes(5), DataSize.ofMegabytes(1), cacheDirectory.toString(), new SimpleMeterRegistry());
+        String body = restarted.fetchData(url("?search=persuasion"));
+
+        assertEquals("{\"query\": \"search=persuasion\"}", body);
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, restarted.stats().diskHits());
+        assertEquals(1, restarted.stats().hits());
+    }
+
+    private String url(String query) {
+        return "http://localhost:" + server.getAddress().getPort() + "/books/" + query;
+    }
+}